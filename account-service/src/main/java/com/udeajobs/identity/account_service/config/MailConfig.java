@@ -0,0 +1,77 @@
+package com.udeajobs.identity.account_service.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Configuración del envío de correo para el servicio de cuentas.
+ *
+ * Crea un {@link PooledJavaMailSender} por cada cuenta remitente de {@code app.mail.senders}
+ * y los agrupa en un {@link MailSenderPool}. Las propiedades comunes de JavaMail
+ * ({@code spring.mail.properties}) se aplican a todas las cuentas; el pool de conexiones
+ * de cada una se configura con {@code app.mail.pool.*}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+@EnableConfigurationProperties({MailProperties.class, MailSendersProperties.class})
+public class MailConfig {
+
+    /**
+     * Crea el conjunto de cuentas remitentes con su pool de conexiones SMTP.
+     *
+     * @param mailProperties propiedades {@code spring.mail.*} comunes
+     * @param sendersProperties cuentas remitentes
+     * @param mongoTemplate plantilla de MongoDB para los contadores de cuota
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param maxTotal conexiones SMTP simultáneas por cuenta como máximo
+     * @param maxMessagesPerConnection mensajes por conexión antes de cerrarla
+     * @param maxIdleMs tiempo máximo ocioso de una conexión
+     * @param validateAfterIdleMs tiempo ocioso tras el que se valida una conexión antes de usarla
+     * @param borrowTimeoutMs espera máxima por una conexión libre
+     * @param throttleBackoffMs tiempo que se aparta una cuenta limitada por el servidor SMTP
+     * @return cuentas remitentes configuradas
+     */
+    @Bean
+    public MailSenderPool mailSenderPool(MailProperties mailProperties,
+                                         MailSendersProperties sendersProperties,
+                                         MongoTemplate mongoTemplate,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.mail.pool.max-total}") int maxTotal,
+                                         @Value("${app.mail.pool.max-messages-per-connection}") int maxMessagesPerConnection,
+                                         @Value("${app.mail.pool.max-idle}") long maxIdleMs,
+                                         @Value("${app.mail.pool.validate-after-idle}") long validateAfterIdleMs,
+                                         @Value("${app.mail.pool.borrow-timeout}") long borrowTimeoutMs,
+                                         @Value("${app.mail.throttle-backoff}") long throttleBackoffMs) {
+        List<MailSenderPool.Account> accounts = sendersProperties.senders().stream()
+                .map(sender -> {
+                    PooledJavaMailSender mailSender = new PooledJavaMailSender(sender.name(), maxTotal,
+                            maxMessagesPerConnection, maxIdleMs, validateAfterIdleMs, borrowTimeoutMs, meterRegistry);
+                    mailSender.setHost(sender.host());
+                    mailSender.setPort(sender.port());
+                    mailSender.setUsername(sender.username());
+                    mailSender.setPassword(sender.password());
+                    mailSender.setProtocol(mailProperties.getProtocol());
+                    if (mailProperties.getDefaultEncoding() != null) {
+                        mailSender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+                    }
+                    Properties javaMailProperties = new Properties();
+                    javaMailProperties.putAll(mailProperties.getProperties());
+                    mailSender.setJavaMailProperties(javaMailProperties);
+                    return new MailSenderPool.Account(sender.name(), sender.username(), mailSender,
+                            sender.perMinute(), sender.perDay());
+                })
+                .toList();
+        return new MailSenderPool(accounts, mongoTemplate, meterRegistry, throttleBackoffMs);
+    }
+}
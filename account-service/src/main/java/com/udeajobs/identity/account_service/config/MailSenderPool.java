@@ -0,0 +1,257 @@
+package com.udeajobs.identity.account_service.config;
+
+import com.udeajobs.identity.account_service.exception.MailQuotaExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conjunto de cuentas remitentes de correo con seguimiento de cuotas y conmutación por error.
+ *
+ * {@link #acquire()} reparte los envíos entre las cuentas en turno rotatorio y reserva una
+ * unidad de su cuota por minuto y por día antes de devolverla. Las cuotas se cuentan en la
+ * colección {@code mail_sender_quota} con un upsert condicional, así que todas las réplicas
+ * del servicio comparten el mismo contador por cuenta; los documentos caducan por TTL
+ * (índice declarado en {@link MongoIndexInitializer}).
+ *
+ * Una cuenta sin cuota, o a la que el servidor SMTP respondió con un error de limitación
+ * (4xx o el 5.4.5 de límite diario de Gmail), se aparta hasta que termina su ventana y
+ * {@link #acquire()} pasa a la siguiente. Si ninguna tiene cuota se lanza
+ * {@link MailQuotaExceededException} con el momento en que la primera la recupera.
+ *
+ * Métricas exportadas: {@code mail.sender.available} (1 si la cuenta tiene cuota),
+ * {@code mail.sender.sent} y {@code mail.sender.throttled} con la etiqueta {@code reason}
+ * (minute, day, server), todas con la etiqueta {@code sender}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+public class MailSenderPool implements DisposableBean {
+
+    static final String QUOTA_COLLECTION = "mail_sender_quota";
+
+    private static final List<Integer> THROTTLING_CODES = List.of(421, 450, 451, 452, 454);
+    private static final String DAILY_LIMIT_STATUS = "5.4.5";
+
+    private final List<Account> accounts;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long throttleBackoffMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Crea el conjunto de cuentas remitentes.
+     *
+     * @param accounts cuentas remitentes, con su emisor SMTP ya configurado
+     * @param mongoTemplate plantilla de MongoDB para los contadores de cuota
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param throttleBackoffMs tiempo que se aparta una cuenta limitada por el servidor SMTP
+     */
+    public MailSenderPool(List<Account> accounts, MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                          long throttleBackoffMs) {
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("At least one mail sender must be configured");
+        }
+        this.accounts = List.copyOf(accounts);
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.throttleBackoffMs = throttleBackoffMs;
+        for (Account account : this.accounts) {
+            Gauge.builder("mail.sender.available", account, a -> a.isAvailable(Instant.now()) ? 1 : 0)
+                    .tag("sender", account.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Elige una cuenta con cuota disponible y reserva un envío en ella.
+     *
+     * @return cuenta remitente a usar
+     * @throws MailQuotaExceededException si ninguna cuenta tiene cuota
+     */
+    public Account acquire() {
+        Instant now = Instant.now();
+        int start = Math.floorMod(next.getAndIncrement(), accounts.size());
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get((start + i) % accounts.size());
+            if (account.isAvailable(now) && reserve(account, now)) {
+                return account;
+            }
+        }
+        throw new MailQuotaExceededException(accounts.stream()
+                .map(Account::getThrottledUntil)
+                .min(Instant::compareTo)
+                .orElse(now));
+    }
+
+    /**
+     * Indica si alguna cuenta tiene cuota, sin reservarla.
+     *
+     * @return true si al menos una cuenta no está apartada
+     */
+    public boolean hasCapacity() {
+        Instant now = Instant.now();
+        return accounts.stream().anyMatch(account -> account.isAvailable(now));
+    }
+
+    /**
+     * Registra un envío entregado por una cuenta.
+     *
+     * @param account cuenta remitente
+     */
+    public void sent(Account account) {
+        meterRegistry.counter("mail.sender.sent", "sender", account.getName()).increment();
+    }
+
+    /**
+     * Indica si un error de envío es una limitación del servidor SMTP y, en tal caso, aparta la cuenta.
+     *
+     * @param account cuenta remitente que falló
+     * @param failure error del envío
+     * @return true si el error era una limitación y conviene probar con otra cuenta
+     */
+    public boolean throttledBy(Account account, Exception failure) {
+        SMTPSendFailedException smtpFailure = smtpFailureOf(failure);
+        if (smtpFailure == null) {
+            return false;
+        }
+        String message = String.valueOf(smtpFailure.getMessage());
+        Instant until;
+        if (message.contains(DAILY_LIMIT_STATUS)) {
+            until = Instant.now().truncatedTo(ChronoUnit.DAYS).plus(1, ChronoUnit.DAYS);
+        } else if (THROTTLING_CODES.contains(smtpFailure.getReturnCode())) {
+            until = Instant.now().plusMillis(throttleBackoffMs);
+        } else {
+            return false;
+        }
+        setAside(account, until, "server");
+        log.warn("Cuenta remitente {} limitada por el servidor SMTP hasta {}: {}", account.getName(), until, message);
+        return true;
+    }
+
+    /**
+     * Cierra las conexiones SMTP ociosas de todas las cuentas.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.pool.eviction-interval}")
+    public void evictIdle() {
+        accounts.forEach(account -> account.getSender().evictIdle());
+    }
+
+    /**
+     * Cierra las conexiones SMTP de todas las cuentas al cerrar el contexto de Spring.
+     */
+    @Override
+    public void destroy() {
+        accounts.forEach(account -> account.getSender().destroy());
+    }
+
+    private boolean reserve(Account account, Instant now) {
+        Instant minute = now.truncatedTo(ChronoUnit.MINUTES);
+        Instant day = now.truncatedTo(ChronoUnit.DAYS);
+        // Primero el minuto: si falla el día después, se pierde una unidad de la ventana más corta
+        if (!increment(account.getName() + ":m:" + minute, account.getPerMinute(), minute.plus(1, ChronoUnit.MINUTES))) {
+            setAside(account, minute.plus(1, ChronoUnit.MINUTES), "minute");
+            return false;
+        }
+        if (!increment(account.getName() + ":d:" + day, account.getPerDay(), day.plus(1, ChronoUnit.DAYS))) {
+            setAside(account, day.plus(1, ChronoUnit.DAYS), "day");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean increment(String key, int limit, Instant windowEnd) {
+        Query belowLimit = Query.query(Criteria.where("_id").is(key).and("count").lt(limit));
+        Update increment = new Update().inc("count", 1).setOnInsert("expiresAt", windowEnd);
+        // El upsert choca con la clave duplicada cuando el contador ya existe y alcanzó el límite;
+        // un segundo intento cubre dos réplicas que crean el mismo contador a la vez
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                mongoTemplate.upsert(belowLimit, increment, QUOTA_COLLECTION);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // se reintenta una vez
+            }
+        }
+        return false;
+    }
+
+    private void setAside(Account account, Instant until, String reason) {
+        account.throttledUntil = until;
+        meterRegistry.counter("mail.sender.throttled", "sender", account.getName(), "reason", reason).increment();
+    }
+
+    private static SMTPSendFailedException smtpFailureOf(Exception failure) {
+        if (failure instanceof MailSendException mailSendException) {
+            for (Exception messageException : mailSendException.getMessageExceptions()) {
+                SMTPSendFailedException found = smtpFailureOf(messageException);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        Throwable cause = failure;
+        while (cause != null) {
+            if (cause instanceof SMTPSendFailedException smtpFailure) {
+                return smtpFailure;
+            }
+            cause = cause instanceof MessagingException messagingException && messagingException.getNextException() != null
+                    ? messagingException.getNextException()
+                    : cause.getCause();
+        }
+        return null;
+    }
+
+    /**
+     * Cuenta remitente de correo con su emisor SMTP y sus cuotas.
+     */
+    @Getter
+    public static final class Account {
+
+        private final String name;
+        private final String from;
+        private final PooledJavaMailSender sender;
+        private final int perMinute;
+        private final int perDay;
+        private volatile Instant throttledUntil = Instant.EPOCH;
+
+        /**
+         * Crea una cuenta remitente.
+         *
+         * @param name nombre de la cuenta en métricas y logs
+         * @param from dirección remitente
+         * @param sender emisor SMTP de la cuenta
+         * @param perMinute emails por minuto
+         * @param perDay emails por día
+         */
+        public Account(String name, String from, PooledJavaMailSender sender, int perMinute, int perDay) {
+            this.name = name;
+            this.from = from;
+            this.sender = sender;
+            this.perMinute = perMinute;
+            this.perDay = perDay;
+        }
+
+        private boolean isAvailable(Instant now) {
+            return !now.isBefore(throttledUntil);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.udeajobs.identity.account_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Cuentas remitentes de correo configuradas en {@code app.mail.senders}.
+ *
+ * Cada cuenta (o relay SMTP) tiene sus propias credenciales y cuotas por minuto y por día.
+ * Las propiedades comunes de JavaMail ({@code spring.mail.properties}) se aplican a todas.
+ *
+ * @param senders cuentas remitentes, en orden de preferencia
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@ConfigurationProperties(prefix = "app.mail")
+public record MailSendersProperties(List<Sender> senders) {
+
+    /**
+     * Cuenta remitente de correo.
+     *
+     * @param name nombre de la cuenta en métricas y logs
+     * @param host servidor SMTP
+     * @param port puerto del servidor SMTP
+     * @param username usuario SMTP, usado también como remitente
+     * @param password contraseña SMTP
+     * @param perMinute emails que la cuenta puede enviar por minuto
+     * @param perDay emails que la cuenta puede enviar por día (UTC)
+     */
+    public record Sender(String name, String host, int port, String username, String password,
+                         int perMinute, int perDay) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.udeajobs.identity.account_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Configuración de MongoDB para el servicio de cuentas.
+ *
+ * Registra el gestor de transacciones para que los métodos {@code @Transactional} guarden
+ * el usuario y su email de la outbox de forma atómica. Las transacciones requieren que
+ * MongoDB se ejecute como replica set.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class MongoConfig {
+
+    /**
+     * Crea el gestor de transacciones de MongoDB.
+     *
+     * @param databaseFactory factoría de la base de datos
+     * @return gestor de transacciones
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
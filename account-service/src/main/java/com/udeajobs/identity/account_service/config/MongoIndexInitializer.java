@@ -0,0 +1,108 @@
+package com.udeajobs.identity.account_service.config;
+
+import com.udeajobs.identity.account_service.entity.OutboxMail;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Crea y verifica al arrancar los índices de las colecciones del servicio.
+ *
+ * Todos los índices se declaran aquí, por colección, en lugar de repartirse entre los
+ * componentes que los consultan. Se crean si no existen (operación idempotente) y se
+ * comprueba después que todos están presentes; si alguno falta o entra en conflicto con un
+ * índice existente, el arranque falla en lugar de degradar silenciosamente las consultas a
+ * recorridos completos.
+ *
+ * Índices de {@code mail_outbox}:
+ *
+ * <ul>
+ *   <li>{@code to_template_createdAt}: emails anteriores de un destinatario, para agruparlos.</li>
+ *   <li>{@code status_priority_nextAttemptAt}: emails vencidos que reclama el despachador.</li>
+ *   <li>{@code sentAt_ttl}: borra los enviados tras {@code app.mail.outbox.retention} días.</li>
+ * </ul>
+ *
+ * Índices de {@code mail_sender_quota}:
+ *
+ * <ul>
+ *   <li>{@code expiresAt_ttl}: borra cada contador de cuota al terminar su ventana.</li>
+ * </ul>
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Índices declarados, por nombre de colección.
+     */
+    private final Map<String, List<Index>> indexes;
+
+    /**
+     * Crea el inicializador con los índices de cada colección.
+     *
+     * @param mongoTemplate plantilla de MongoDB
+     * @param outboxRetentionDays días que se conservan los emails enviados
+     */
+    public MongoIndexInitializer(MongoTemplate mongoTemplate,
+                                 @Value("${app.mail.outbox.retention}") long outboxRetentionDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexes = Map.of(
+                OutboxMail.COLLECTION, List.of(
+                        new Index().on("to", Sort.Direction.ASC)
+                                .on("template", Sort.Direction.ASC)
+                                .on("createdAt", Sort.Direction.DESC)
+                                .named("to_template_createdAt"),
+                        new Index().on("status", Sort.Direction.ASC)
+                                .on("priority", Sort.Direction.ASC)
+                                .on("nextAttemptAt", Sort.Direction.ASC)
+                                .named("status_priority_nextAttemptAt"),
+                        new Index().on("sentAt", Sort.Direction.ASC)
+                                .expire(Duration.ofDays(outboxRetentionDays))
+                                .named("sentAt_ttl")),
+                MailSenderPool.QUOTA_COLLECTION, List.of(
+                        new Index().on("expiresAt", Sort.Direction.ASC)
+                                .expire(Duration.ZERO)
+                                .named("expiresAt_ttl")));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        indexes.forEach((collection, declared) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+            List<String> expected = new ArrayList<>();
+            declared.forEach(index -> expected.add(indexOps.createIndex(index)));
+
+            Set<String> existing = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            List<String> missing = expected.stream().filter(name -> !existing.contains(name)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Missing indexes on " + collection + ": " + missing);
+            }
+            log.info("Índices verificados en {}: {}", collection, expected);
+        });
+    }
+}
@@ -0,0 +1,251 @@
+package com.udeajobs.identity.account_service.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JavaMailSenderImpl} que reutiliza conexiones SMTP autenticadas entre envíos.
+ *
+ * El {@link JavaMailSenderImpl} estándar abre, negocia TLS, autentica y cierra una conexión
+ * por cada llamada a {@code send}. Este emisor mantiene hasta {@code maxTotal} transports
+ * conectados por cuenta remitente y los presta a cada envío, de modo que una sesión SMTP entrega muchos mensajes.
+ *
+ * <ul>
+ *   <li>Una conexión se retira tras {@code maxMessagesPerConnection} mensajes, porque muchos
+ *       servidores cortan la sesión pasado cierto número de envíos.</li>
+ *   <li>Las conexiones ociosas más de {@code maxIdleMs} se cierran al prestarlas y en cada
+ *       pasada de {@link #evictIdle()}.</li>
+ *   <li>Una conexión ociosa más de {@code validateAfterIdleMs} se comprueba con un NOOP antes
+ *       de prestarla; si el servidor la cerró se descarta.</li>
+ *   <li>Si el envío falla sobre una conexión reutilizada se reintenta una vez sobre una conexión
+ *       nueva, por si el servidor la cerró entre la validación y el envío.</li>
+ * </ul>
+ *
+ * Métricas exportadas: {@code mail.smtp.pool.idle}, {@code mail.smtp.pool.active} y
+ * {@code mail.smtp.pool.connections} con la etiqueta {@code event} (opened, closed), todas con
+ * la etiqueta {@code sender}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl {
+
+    private final int maxMessagesPerConnection;
+    private final long maxIdleMs;
+    private final long validateAfterIdleMs;
+    private final long borrowTimeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final String name;
+
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final int maxTotal;
+    private volatile boolean closed;
+
+    /**
+     * Crea el emisor con su pool de conexiones vacío.
+     *
+     * @param name nombre de la cuenta remitente, usado como etiqueta {@code sender} en las métricas
+     * @param maxTotal conexiones SMTP simultáneas como máximo
+     * @param maxMessagesPerConnection mensajes enviados por una conexión antes de cerrarla
+     * @param maxIdleMs tiempo máximo que una conexión puede estar ociosa
+     * @param validateAfterIdleMs tiempo ocioso a partir del cual se valida la conexión antes de usarla
+     * @param borrowTimeoutMs espera máxima por una conexión libre
+     * @param meterRegistry registro de métricas de Micrometer
+     */
+    public PooledJavaMailSender(String name, int maxTotal, int maxMessagesPerConnection, long maxIdleMs,
+                                long validateAfterIdleMs, long borrowTimeoutMs, MeterRegistry meterRegistry) {
+        this.maxTotal = maxTotal;
+        this.permits = new Semaphore(maxTotal);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxIdleMs = maxIdleMs;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+        Gauge.builder("mail.smtp.pool.idle", idle, LinkedBlockingDeque::size).tag("sender", name).register(meterRegistry);
+        Gauge.builder("mail.smtp.pool.active", this, sender -> sender.maxTotal - sender.permits.availablePermits() - sender.idle.size())
+                .tag("sender", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        for (int i = 0; i < mimeMessages.length; i++) {
+            MimeMessage mimeMessage = mimeMessages[i];
+            Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+            try {
+                prepare(mimeMessage);
+                deliver(mimeMessage);
+            } catch (AuthenticationFailedException e) {
+                throw new MailAuthenticationException(e);
+            } catch (MessagingException | MailException e) {
+                failedMessages.put(original, e);
+            }
+        }
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Cierra las conexiones que llevan ociosas más de {@code maxIdleMs}.
+     */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledTransport> iterator = idle.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledTransport pooled = iterator.next();
+            if (now - pooled.lastUsedAt >= maxIdleMs && idle.removeFirstOccurrence(pooled)) {
+                discard(pooled);
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones ociosas.
+     */
+    public void destroy() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private void deliver(MimeMessage mimeMessage) throws MessagingException {
+        Address[] recipients = mimeMessage.getAllRecipients();
+        Address[] addresses = recipients != null ? recipients : new Address[0];
+        PooledTransport pooled = borrow();
+        try {
+            send(pooled, mimeMessage, addresses);
+        } catch (MessagingException e) {
+            if (!pooled.reused()) {
+                throw e;
+            }
+            // La conexión reutilizada pudo cerrarse en el servidor: un intento más sobre una nueva
+            log.debug("Fallo en una conexión SMTP reutilizada; se reintenta con una conexión nueva", e);
+            send(open(), mimeMessage, addresses);
+        }
+    }
+
+    /**
+     * Envía el mensaje por la conexión prestada y la devuelve al pool; si el envío lanza
+     * cualquier excepción, incluidas las no comprobadas, la conexión se descarta y su permiso se libera.
+     */
+    private void send(PooledTransport pooled, MimeMessage mimeMessage, Address[] addresses) throws MessagingException {
+        boolean sent = false;
+        try {
+            pooled.transport.sendMessage(mimeMessage, addresses);
+            sent = true;
+        } finally {
+            if (sent) {
+                release(pooled);
+            } else {
+                discard(pooled);
+            }
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long idleFor = System.currentTimeMillis() - pooled.lastUsedAt;
+            if (idleFor >= maxIdleMs || (idleFor >= validateAfterIdleMs && !pooled.transport.isConnected())) {
+                discard(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return open();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            Transport transport = connectTransport();
+            meterRegistry.counter("mail.smtp.pool.connections", "sender", name, "event", "opened").increment();
+            return new PooledTransport(transport);
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport pooled) {
+        pooled.messagesSent++;
+        pooled.lastUsedAt = System.currentTimeMillis();
+        if (closed || pooled.messagesSent >= maxMessagesPerConnection) {
+            discard(pooled);
+        } else {
+            // LIFO: las conexiones más usadas se mantienen calientes y el resto caduca por inactividad
+            idle.offerFirst(pooled);
+        }
+    }
+
+    private void discard(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error al cerrar una conexión SMTP", e);
+        } finally {
+            permits.release();
+            meterRegistry.counter("mail.smtp.pool.connections", "sender", name, "event", "closed").increment();
+        }
+    }
+
+    private static void prepare(MimeMessage mimeMessage) throws MessagingException {
+        // Igual que JavaMailSenderImpl: se fija la fecha y se conserva un Message-ID personalizado
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private boolean reused() {
+            return messagesSent > 0;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.udeajobs.identity.account_service.config;
 
+import com.udeajobs.identity.account_service.security.AdaptiveBCryptPasswordEncoder;
+import com.udeajobs.identity.account_service.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -30,12 +33,31 @@ public class SecurityConfig {
      *
      * BCrypt es un algoritmo de hash adaptativo que incluye salt automático
      * y es resistente a ataques de fuerza bruta debido a su factor de costo configurable.
+     * Se ejecuta en un pool acotado de hilos para que el hashing no acapare los hilos de Tomcat.
      *
-     * @return una instancia de BCryptPasswordEncoder para encriptar contraseñas
+     * @param threads hilos de hashing (0 = número de núcleos)
+     * @param queueCapacity operaciones que pueden esperar en cola
+     * @param maxWait espera máxima en milisegundos antes de responder 503
+     * @param retryAfter segundos sugeridos en la cabecera Retry-After
+     * @param strength costo BCrypt fijo (0 = calibrar al arrancar)
+     * @param targetMillis latencia objetivo por hash usada en la calibración
+     * @param minStrength costo BCrypt mínimo
+     * @param maxStrength costo BCrypt máximo
+     * @param meterRegistry registro de métricas de Micrometer
+     * @return un BCrypt con costo calibrado envuelto en un {@link BoundedPasswordEncoder}
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.hashing.threads}") int threads,
+                                           @Value("${app.hashing.queue-capacity}") int queueCapacity,
+                                           @Value("${app.hashing.max-wait}") long maxWait,
+                                           @Value("${app.hashing.retry-after}") long retryAfter,
+                                           @Value("${app.hashing.bcrypt.strength}") int strength,
+                                           @Value("${app.hashing.bcrypt.target-ms}") long targetMillis,
+                                           @Value("${app.hashing.bcrypt.min-strength}") int minStrength,
+                                           @Value("${app.hashing.bcrypt.max-strength}") int maxStrength,
+                                           MeterRegistry meterRegistry) {
+        AdaptiveBCryptPasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(strength, targetMillis, minStrength, maxStrength, meterRegistry);
+        return new BoundedPasswordEncoder(bcrypt, threads, queueCapacity, maxWait, retryAfter, meterRegistry);
     }
 
     /**
@@ -14,6 +14,7 @@ import com.udeajobs.identity.account_service.dto.RegistrationRequest;
 import com.udeajobs.identity.account_service.dto.ResetPasswordRequest;
 import com.udeajobs.identity.account_service.dto.VerificationRequest;
 import com.udeajobs.identity.account_service.entity.User;
+import com.udeajobs.identity.account_service.security.RequestRateLimiter;
 import com.udeajobs.identity.account_service.service.interfaces.AccountService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +23,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +46,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/")
 public class AccountController {
     private final AccountService accountService;
+    private final RequestRateLimiter requestRateLimiter;
 
     /**
      * Registra una nueva cuenta de usuario en el sistema.
@@ -85,6 +88,14 @@ public class AccountController {
                             schema = @Schema(implementation = ErrorResponse.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Demasiadas solicitudes; reintentar tras los segundos indicados en Retry-After",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Error interno del servidor al procesar el registro o enviar el email",
@@ -95,7 +106,9 @@ public class AccountController {
             )
     })
     @PostMapping("/register")
-    public ResponseEntity<User> registerAccount(@Valid @RequestBody RegistrationRequest registrationRequest) {
+    public ResponseEntity<User> registerAccount(@Valid @RequestBody RegistrationRequest registrationRequest,
+                                                HttpServletRequest request) {
+        requestRateLimiter.checkRegister(registrationRequest.email(), request.getRemoteAddr());
         log.info("Iniciando registro de usuario con email: {}", registrationRequest.email());
         User user = User.builder()
                 .fullName(registrationRequest.fullName())
@@ -206,6 +219,14 @@ public class AccountController {
                             schema = @Schema(implementation = ErrorResponse.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Demasiadas solicitudes; reintentar tras los segundos indicados en Retry-After",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Error interno del servidor al generar el token o enviar el email",
@@ -216,7 +237,9 @@ public class AccountController {
             )
     })
     @PostMapping("/forgot-password")
-    public ResponseEntity<String> forgotPassword(@Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest) {
+    public ResponseEntity<String> forgotPassword(@Valid @RequestBody ForgotPasswordRequest forgotPasswordRequest,
+                                                 HttpServletRequest request) {
+        requestRateLimiter.checkForgotPassword(forgotPasswordRequest.email(), request.getRemoteAddr());
         log.info("Iniciando recuperación de contraseña para email: {}", forgotPasswordRequest.email());
         accountService.forgotPassword(forgotPasswordRequest.email());
         log.info("Email de recuperación enviado a: {}", forgotPasswordRequest.email());
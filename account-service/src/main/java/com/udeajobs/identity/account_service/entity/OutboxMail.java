@@ -0,0 +1,78 @@
+package com.udeajobs.identity.account_service.entity;
+
+import com.udeajobs.identity.account_service.enums.MAIL_STATUS;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Email pendiente de envío en la outbox de correo.
+ *
+ * Se guarda en la misma transacción que el cambio del usuario que lo origina, de modo que
+ * un email solo existe si el registro o la solicitud de recuperación se confirmaron, y
+ * ninguno se pierde si el servidor SMTP no responde. Se almacena en la colección
+ * "mail_outbox" de MongoDB.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = OutboxMail.COLLECTION)
+public class OutboxMail {
+
+    /** Nombre de la colección de la outbox */
+    public static final String COLLECTION = "mail_outbox";
+
+    /** Identificador único del email */
+    @Id
+    private String id;
+
+    /** Dirección de correo electrónico del destinatario */
+    private String to;
+
+    /** Asunto del correo electrónico */
+    private String subject;
+
+    /** Nombre de la plantilla HTML (sin extensión) */
+    private String template;
+
+    /** Variables de la plantilla */
+    private Map<String, Object> model;
+
+    /** Identifica el contenido del email (p. ej. el token que enlaza); solo se agrupan emails con la misma */
+    private String dedupeKey;
+
+    /** Nivel de prioridad ({@link com.udeajobs.identity.account_service.enums.MAIL_PRIORITY}); menor se envía antes */
+    private int priority;
+
+    /** Estado del envío */
+    private MAIL_STATUS status;
+
+    /** Intentos de envío realizados */
+    private int attempts;
+
+    /** Momento a partir del cual el email puede (re)intentarse */
+    private Instant nextAttemptAt;
+
+    /** Momento hasta el que el worker que lo reclamó tiene la exclusiva del envío */
+    private Instant lockedUntil;
+
+    /** Último error de envío, si lo hubo */
+    private String lastError;
+
+    /** Momento en que se encoló el email */
+    private Instant createdAt;
+
+    /** Momento en que se entregó el email al servidor SMTP */
+    private Instant sentAt;
+}
@@ -105,4 +105,13 @@ public class User {
             hidden = true
     )
     private LocalDateTime resetPasswordTokenExpiration;
+
+    /** Versión de las credenciales; se incrementa en cada cambio de contraseña */
+    @Schema(
+            description = "Versión de las credenciales del usuario",
+            example = "1",
+            accessMode = Schema.AccessMode.READ_ONLY,
+            hidden = true
+    )
+    private Long credentialsVersion;
 }
@@ -0,0 +1,25 @@
+package com.udeajobs.identity.account_service.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Prioridades de envío de los emails de la outbox.
+ *
+ * El despachador envía primero los de menor nivel: los códigos de verificación, que
+ * bloquean el alta, antes que los enlaces de recuperación, y estos antes que los envíos masivos.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+@RequiredArgsConstructor
+public enum MAIL_PRIORITY {
+    VERIFICATION(0),
+    PASSWORD_RESET(1),
+    BULK(2);
+
+    /** Nivel almacenado en MongoDB; se ordena de forma ascendente */
+    private final int level;
+}
@@ -0,0 +1,23 @@
+package com.udeajobs.identity.account_service.enums;
+
+/**
+ * Enumeración que define los estados de un email en la outbox de correo.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public enum MAIL_STATUS {
+
+    /** Email pendiente de envío o a la espera de un reintento */
+    PENDING,
+
+    /** Email reclamado por un worker que lo está enviando */
+    SENDING,
+
+    /** Email entregado al servidor SMTP */
+    SENT,
+
+    /** Email descartado tras agotar los reintentos */
+    DEAD
+}
@@ -0,0 +1,22 @@
+package com.udeajobs.identity.account_service.events;
+
+/**
+ * Evento que se dispara cuando cambian las credenciales de un usuario.
+ *
+ * Se publica a través de RabbitMQ para que auth-service revoque los refresh tokens
+ * emitidos con una versión de credenciales anterior.
+ *
+ * @param accountId identificador único de la cuenta
+ * @param email dirección de correo electrónico del usuario
+ * @param credentialsVersion nueva versión de las credenciales
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public record CredencialesActualizadasEvent(
+        String accountId,
+        String email,
+        long credentialsVersion
+) {
+}
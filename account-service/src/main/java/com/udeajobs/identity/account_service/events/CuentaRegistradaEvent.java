@@ -0,0 +1,20 @@
+package com.udeajobs.identity.account_service.events;
+
+/**
+ * Evento que se dispara cuando se registra una cuenta de usuario nueva.
+ *
+ * Se publica a través de RabbitMQ para que otros microservicios (p. ej. auth-service,
+ * que mantiene un filtro de emails registrados) conozcan la cuenta antes de su verificación.
+ *
+ * @param accountId identificador único de la cuenta registrada
+ * @param email dirección de correo electrónico del usuario registrado
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public record CuentaRegistradaEvent(
+        String accountId,
+        String email
+) {
+}
@@ -1,6 +1,7 @@
 package com.udeajobs.identity.account_service.exception;
 
 import com.udeajobs.identity.account_service.dto.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -39,6 +40,40 @@ public class GlobarExceptionHadler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+    /**
+     * Maneja la saturación del pool de hashing de contraseñas.
+     *
+     * Se activa cuando hay demasiados registros o restablecimientos de contraseña
+     * simultáneos; el cliente debe reintentar tras el tiempo indicado en Retry-After.
+     *
+     * @param e la excepción HashingCapacityExceededException capturada
+     * @return ResponseEntity con ErrorResponse, cabecera Retry-After y código HTTP 503 (Service Unavailable)
+     */
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleHashingCapacityExceeded(HashingCapacityExceededException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage(), "Service Unavailable");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Maneja las solicitudes que superan un límite de frecuencia.
+     *
+     * Se activa cuando un email, una IP o el conjunto de clientes supera los registros o
+     * solicitudes de recuperación permitidos por minuto.
+     *
+     * @param e la excepción RateLimitExceededException capturada
+     * @return ResponseEntity con ErrorResponse, cabecera Retry-After y código HTTP 429 (Too Many Requests)
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException e) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage(), "Too Many Requests");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     /**
      * Maneja excepciones de validación de argumentos de métodos.
      *
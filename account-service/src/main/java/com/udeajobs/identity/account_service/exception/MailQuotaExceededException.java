@@ -0,0 +1,33 @@
+package com.udeajobs.identity.account_service.exception;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Excepción lanzada cuando ninguna cuenta remitente de correo tiene cuota disponible.
+ *
+ * El despachador de la outbox la trata como un aplazamiento y no como un intento fallido.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+public class MailQuotaExceededException extends RuntimeException {
+
+    /**
+     * Momento en que la primera cuenta remitente recupera cuota.
+     */
+    private final Instant retryAt;
+
+    /**
+     * Crea la excepción con el momento en que conviene reintentar.
+     *
+     * @param retryAt momento en que alguna cuenta remitente vuelve a tener cuota
+     */
+    public MailQuotaExceededException(Instant retryAt) {
+        super("All mail senders are out of quota until " + retryAt);
+        this.retryAt = retryAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.udeajobs.identity.account_service.repository;
+
+import com.udeajobs.identity.account_service.entity.OutboxMail;
+import com.udeajobs.identity.account_service.enums.MAIL_STATUS;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Repositorio para operaciones de acceso a datos de la outbox de correo.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public interface OutboxMailRepository extends MongoRepository<OutboxMail, String> {
+
+    /**
+     * Cuenta los emails de la outbox en un estado.
+     *
+     * @param status estado a contar
+     * @return número de emails en ese estado
+     */
+    long countByStatus(MAIL_STATUS status);
+
+    /**
+     * Busca el email más antiguo encolado, a partir de un momento, con una plantilla y un mismo
+     * contenido para un destinatario en alguno de los estados indicados.
+     *
+     * @param to destinatario
+     * @param template plantilla del email
+     * @param dedupeKey clave que identifica el contenido del email
+     * @param statuses estados considerados
+     * @param createdAt momento a partir del cual se busca
+     * @return el email, si existe
+     */
+    Optional<OutboxMail> findFirstByToAndTemplateAndDedupeKeyAndStatusInAndCreatedAtAfterOrderByCreatedAtAsc(
+            String to, String template, String dedupeKey, Collection<MAIL_STATUS> statuses, Instant createdAt);
+}
@@ -0,0 +1,105 @@
+package com.udeajobs.identity.account_service.security;
+
+import com.udeajobs.identity.account_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limitador de frecuencia de los endpoints que disparan hashing de contraseñas o envío de emails.
+ *
+ * Se consulta antes de cualquier acceso a MongoDB, cálculo de BCrypt o conexión SMTP, y aplica
+ * token buckets por email, por IP de cliente y global a {@code /register} y
+ * {@code /forgot-password}, con los permisos por minuto configurados en
+ * {@code app.rate-limit}. Los emails se comparan sin distinguir mayúsculas.
+ *
+ * Métrica exportada: {@code rate.limit.rejected} con las etiquetas {@code endpoint} y
+ * {@code scope} (email, ip, global).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class RequestRateLimiter {
+
+    private static final String GLOBAL_KEY = "*";
+
+    private final MeterRegistry meterRegistry;
+    private final Limits register;
+    private final Limits forgotPassword;
+
+    /**
+     * Crea el limitador con los límites configurados.
+     *
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param registerEmail registros por minuto para un mismo email
+     * @param registerIp registros por minuto desde una misma IP
+     * @param registerGlobal registros por minuto en total
+     * @param forgotEmail solicitudes de recuperación por minuto para un mismo email
+     * @param forgotIp solicitudes de recuperación por minuto desde una misma IP
+     * @param forgotGlobal solicitudes de recuperación por minuto en total
+     * @param maxKeys claves máximas en memoria por tipo de límite
+     */
+    public RequestRateLimiter(MeterRegistry meterRegistry,
+                              @Value("${app.rate-limit.register.email}") long registerEmail,
+                              @Value("${app.rate-limit.register.ip}") long registerIp,
+                              @Value("${app.rate-limit.register.global}") long registerGlobal,
+                              @Value("${app.rate-limit.forgot-password.email}") long forgotEmail,
+                              @Value("${app.rate-limit.forgot-password.ip}") long forgotIp,
+                              @Value("${app.rate-limit.forgot-password.global}") long forgotGlobal,
+                              @Value("${app.rate-limit.max-keys}") long maxKeys) {
+        this.meterRegistry = meterRegistry;
+        this.register = new Limits("register", registerEmail, registerIp, registerGlobal, maxKeys);
+        this.forgotPassword = new Limits("forgot-password", forgotEmail, forgotIp, forgotGlobal, maxKeys);
+    }
+
+    /**
+     * Comprueba los límites de una solicitud de registro.
+     *
+     * @param email email del registro
+     * @param clientIp IP del cliente
+     * @throws RateLimitExceededException si algún límite está agotado
+     */
+    public void checkRegister(String email, String clientIp) {
+        check(register, email, clientIp);
+    }
+
+    /**
+     * Comprueba los límites de una solicitud de recuperación de contraseña.
+     *
+     * @param email email de la cuenta
+     * @param clientIp IP del cliente
+     * @throws RateLimitExceededException si algún límite está agotado
+     */
+    public void checkForgotPassword(String email, String clientIp) {
+        check(forgotPassword, email, clientIp);
+    }
+
+    private void check(Limits limits, String email, String clientIp) {
+        String key = email == null ? "" : email.toLowerCase(Locale.ROOT);
+        reject(limits.endpoint(), "email", limits.email().tryAcquire(key));
+        reject(limits.endpoint(), "ip", limits.ip().tryAcquire(clientIp));
+        reject(limits.endpoint(), "global", limits.global().tryAcquire(GLOBAL_KEY));
+    }
+
+    private void reject(String endpoint, String scope, long retryAfterSeconds) {
+        if (retryAfterSeconds > 0) {
+            meterRegistry.counter("rate.limit.rejected", "endpoint", endpoint, "scope", scope).increment();
+            throw new RateLimitExceededException(retryAfterSeconds);
+        }
+    }
+
+    private record Limits(String endpoint, TokenBucketLimiter email, TokenBucketLimiter ip, TokenBucketLimiter global) {
+
+        Limits(String endpoint, long emailPerMinute, long ipPerMinute, long globalPerMinute, long maxKeys) {
+            this(endpoint,
+                    new TokenBucketLimiter(emailPerMinute, Duration.ofMinutes(1), maxKeys),
+                    new TokenBucketLimiter(ipPerMinute, Duration.ofMinutes(1), maxKeys),
+                    new TokenBucketLimiter(globalPerMinute, Duration.ofMinutes(1), 1));
+        }
+    }
+}
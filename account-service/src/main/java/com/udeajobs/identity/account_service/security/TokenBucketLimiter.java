@@ -0,0 +1,123 @@
+package com.udeajobs.identity.account_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conjunto de token buckets indexados por clave (email, IP, etc.), sin bloqueos.
+ *
+ * Cada bucket admite ráfagas de hasta {@code capacity} permisos y se rellena a razón de
+ * {@code capacity} permisos por {@code refillPeriod}. El estado de cada bucket es un valor
+ * inmutable actualizado con compare-and-set, así que las peticiones concurrentes sobre la
+ * misma clave no se bloquean entre sí. Los buckets viven en una caché acotada a
+ * {@code maxKeys} claves que los descarta tras un periodo de relleno sin uso, momento en el
+ * que estarían llenos de todos modos.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public class TokenBucketLimiter {
+
+    private final double capacity;
+    private final double permitsPerNano;
+    private final Cache<String, AtomicReference<State>> buckets;
+
+    /**
+     * Crea el limitador.
+     *
+     * @param capacity permisos máximos acumulables por clave
+     * @param refillPeriod tiempo que tarda un bucket vacío en llenarse
+     * @param maxKeys número máximo de claves en memoria
+     */
+    public TokenBucketLimiter(long capacity, Duration refillPeriod, long maxKeys) {
+        if (capacity <= 0 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Invalid token bucket: " + capacity + " per " + refillPeriod);
+        }
+        this.capacity = capacity;
+        this.permitsPerNano = capacity / (double) refillPeriod.toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(refillPeriod)
+                .build();
+    }
+
+    /**
+     * Intenta consumir un permiso de la clave.
+     *
+     * @param key clave del bucket
+     * @return 0 si se concedió el permiso; si no, segundos hasta que haya uno disponible
+     */
+    public long tryAcquire(String key) {
+        return update(key, true);
+    }
+
+    /**
+     * Consulta si la clave tiene un permiso disponible, sin consumirlo.
+     *
+     * @param key clave del bucket
+     * @return 0 si hay un permiso disponible; si no, segundos hasta que lo haya
+     */
+    public long peek(String key) {
+        AtomicReference<State> bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            return 0;
+        }
+        return retryAfter(bucket.get().refill(System.nanoTime(), capacity, permitsPerNano).tokens());
+    }
+
+    /**
+     * Consume un permiso aunque el bucket esté vacío (p. ej. para registrar un fallo ya ocurrido).
+     *
+     * @param key clave del bucket
+     */
+    public void consume(String key) {
+        update(key, false);
+    }
+
+    /**
+     * Devuelve el bucket de la clave a su capacidad máxima.
+     *
+     * @param key clave del bucket
+     */
+    public void reset(String key) {
+        buckets.invalidate(key);
+    }
+
+    private long update(String key, boolean onlyIfAvailable) {
+        AtomicReference<State> bucket = buckets.get(key, k -> new AtomicReference<>(new State(capacity, System.nanoTime())));
+        while (true) {
+            State current = bucket.get();
+            State refilled = current.refill(System.nanoTime(), capacity, permitsPerNano);
+            if (onlyIfAvailable && refilled.tokens() < 1) {
+                return retryAfter(refilled.tokens());
+            }
+            State next = new State(Math.max(refilled.tokens() - 1, 0), refilled.updatedAt());
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private long retryAfter(double tokens) {
+        if (tokens >= 1) {
+            return 0;
+        }
+        long nanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos) + 1);
+    }
+
+    private record State(double tokens, long updatedAt) {
+
+        State refill(long now, double capacity, double permitsPerNano) {
+            if (now <= updatedAt) {
+                return this;
+            }
+            return new State(Math.min(capacity, tokens + (now - updatedAt) * permitsPerNano), now);
+        }
+    }
+}
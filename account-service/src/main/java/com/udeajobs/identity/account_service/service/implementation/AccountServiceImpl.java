@@ -2,18 +2,25 @@ package com.udeajobs.identity.account_service.service.implementation;
 
 import com.udeajobs.identity.account_service.config.RabbitMQConfig;
 import com.udeajobs.identity.account_service.entity.User;
+import com.udeajobs.identity.account_service.enums.MAIL_PRIORITY;
 import com.udeajobs.identity.account_service.enums.STATUS;
+import com.udeajobs.identity.account_service.events.CredencialesActualizadasEvent;
+import com.udeajobs.identity.account_service.events.CuentaRegistradaEvent;
 import com.udeajobs.identity.account_service.events.CuentaVerificadaEvent;
 import com.udeajobs.identity.account_service.repository.UserRepository;
 import com.udeajobs.identity.account_service.service.interfaces.AccountService;
-import com.udeajobs.identity.account_service.service.interfaces.MailService;
+import com.udeajobs.identity.account_service.service.interfaces.MailOutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -28,6 +35,9 @@ import java.util.UUID;
  * con el ciclo de vida de las cuentas de usuario, incluyendo registro, verificación,
  * recuperación de contraseñas y comunicación con otros microservicios a través de eventos.
  *
+ * Los eventos publicados dentro de una transacción se envían solo cuando esta se confirma,
+ * para que ningún consumidor reciba un evento de un usuario que no llegó a guardarse.
+ *
  * @author UdeAJobs Team
  * @version 1.0
  * @since 1.0
@@ -38,25 +48,34 @@ import java.util.UUID;
 public class AccountServiceImpl implements AccountService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final MailService mailService;
+    private final MailOutboxService mailOutboxService;
     private final RabbitTemplate rabbitTemplate;
 
+    /** Validez de un token de recuperación de contraseña */
+    private static final Duration RESET_TOKEN_VALIDITY = Duration.ofHours(1);
+
     /** URL base para enlaces de recuperación de contraseña, configurable por entorno */
     @Value("${app.reset-url-base}")
     private String resetUrlBase;
 
+    /** Ventana en la que las solicitudes de recuperación repetidas reutilizan el mismo token */
+    @Value("${app.mail.coalesce.window}")
+    private long coalesceWindowMs;
+
     /**
      * Registra un nuevo usuario en el sistema.
      *
      * Valida que el email no esté en uso, encripta la contraseña, genera un código
-     * de verificación aleatorio y envía un email de confirmación. El usuario queda
-     * en estado PENDING_VERIFICATION hasta completar la verificación.
+     * de verificación aleatorio y encola un email de confirmación en la misma transacción
+     * que guarda el usuario; el evento de cuenta registrada se publica al confirmarse esa
+     * transacción. El usuario queda en estado PENDING_VERIFICATION hasta completar la verificación.
      *
      * @param user el usuario a registrar con datos básicos
      * @return el usuario guardado con información adicional generada
      * @throws IllegalArgumentException si el email ya está registrado
      */
     @Override
+    @Transactional
     public User registerUser(User user) {
         log.info("Iniciando registro de usuario con email: {}", user.getEmail());
 
@@ -74,11 +93,16 @@ public class AccountServiceImpl implements AccountService {
         User savedUser = userRepository.save(user);
         log.info("Usuario guardado en base de datos con ID: {}", savedUser.getId());
 
+        CuentaRegistradaEvent cuentaRegistradaEvent = new CuentaRegistradaEvent(savedUser.getId(), savedUser.getEmail());
+        publishAfterCommit("user.registered", cuentaRegistradaEvent);
+        log.debug("Evento de cuenta registrada preparado para usuario: {}", savedUser.getEmail());
+
         Map<String, Object> model = new HashMap<>();
         model.put("username", savedUser.getUsername());
         model.put("verificationCode", savedUser.getVerificationCode());
-        mailService.sendEmail(savedUser.getEmail(), "Verificación de cuenta - UdeAJobs", "verification-email", model);
-        log.info("Email de verificación enviado a: {}", savedUser.getEmail());
+        mailOutboxService.enqueue(savedUser.getEmail(), "Verificación de cuenta - UdeAJobs", "verification-email", model, MAIL_PRIORITY.VERIFICATION,
+                savedUser.getVerificationCode());
+        log.info("Email de verificación encolado para: {}", savedUser.getEmail());
 
         return savedUser;
     }
@@ -113,24 +137,30 @@ public class AccountServiceImpl implements AccountService {
         savedUser.setVerificationCode(null); // Clear verification code after use
         log.debug("Estado de usuario actualizado a ACTIVE para: {}", email);
 
-        CuentaVerificadaEvent cuentaVerificadaEvent = new CuentaVerificadaEvent( savedUser.getId(), savedUser.getFullName(), savedUser.getEmail());
-        rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, "user.verified", cuentaVerificadaEvent) ;
-        log.info("Evento de cuenta verificada publicado para usuario: {}", savedUser.getUsername());
-
+        // Se guarda antes de publicar: los consumidores releen el usuario al recibir el evento
         userRepository.save(savedUser);
         log.info("Usuario {} verificado exitosamente", user.get().getUsername());
+
+        CuentaVerificadaEvent cuentaVerificadaEvent = new CuentaVerificadaEvent( savedUser.getId(), savedUser.getFullName(), savedUser.getEmail());
+        publishAfterCommit("user.verified", cuentaVerificadaEvent);
+        log.info("Evento de cuenta verificada publicado para usuario: {}", savedUser.getUsername());
     }
 
     /**
      * Inicia el proceso de recuperación de contraseña.
      *
      * Genera un token UUID único, establece una fecha de expiración de 1 hora,
-     * guarda los datos en la base de datos y envía un email con el enlace de recuperación.
+     * guarda los datos en la base de datos y encola, en la misma transacción, un email con
+     * el enlace de recuperación. Si el usuario ya pidió un token hace menos de
+     * {@code app.mail.coalesce.window}, se reutiliza sin escribir el usuario y el email se
+     * agrupa con el anterior, de modo que los reintentos no invalidan el enlace ya enviado.
+     * El token es la clave de agrupación: un token nuevo siempre se envía.
      *
      * @param email el email del usuario que solicita recuperar la contraseña
      * @throws IllegalArgumentException si el usuario no existe
      */
     @Override
+    @Transactional
     public void forgotPassword(String email) {
         log.info("Iniciando proceso de recuperación de contraseña para: {}", email);
 
@@ -141,26 +171,35 @@ public class AccountServiceImpl implements AccountService {
         }
 
         User user = userOptional.get();
-        String token = UUID.randomUUID().toString();
-        user.setResetPasswordToken(token);
-        user.setResetPasswordTokenExpiration(LocalDateTime.now().plusHours(1)); // Token expires in 1 hour
-        userRepository.save(user);
-        log.debug("Token de recuperación generado y guardado para usuario: {}", email);
+        String token = user.getResetPasswordToken();
+        LocalDateTime expiration = user.getResetPasswordTokenExpiration();
+        LocalDateTime now = LocalDateTime.now();
+        if (token != null && expiration != null
+                && expiration.minus(RESET_TOKEN_VALIDITY).plus(Duration.ofMillis(coalesceWindowMs)).isAfter(now)) {
+            log.debug("Token de recuperación reciente reutilizado para usuario: {}", email);
+        } else {
+            token = UUID.randomUUID().toString();
+            user.setResetPasswordToken(token);
+            user.setResetPasswordTokenExpiration(now.plus(RESET_TOKEN_VALIDITY));
+            userRepository.save(user);
+            log.debug("Token de recuperación generado y guardado para usuario: {}", email);
+        }
 
         String resetUrl = resetUrlBase + "?token=" + token;
 
         Map<String, Object> model = new HashMap<>();
         model.put("username", user.getUsername());
         model.put("resetUrl", resetUrl);
-        mailService.sendEmail(user.getEmail(), "Recuperación de Contraseña - UdeAJobs", "password-reset-link", model);
-        log.info("Email de recuperación de contraseña enviado a: {}", email);
+        mailOutboxService.enqueue(user.getEmail(), "Recuperación de Contraseña - UdeAJobs", "password-reset-link", model, MAIL_PRIORITY.PASSWORD_RESET, token);
+        log.info("Email de recuperación de contraseña encolado para: {}", email);
     }
 
     /**
      * Restablece la contraseña del usuario utilizando un token de recuperación.
      *
      * Valida que el token exista y no haya expirado, encripta la nueva contraseña,
-     * actualiza los datos del usuario y limpia el token de recuperación.
+     * actualiza los datos del usuario y limpia el token de recuperación. Incrementa la versión
+     * de credenciales y publica un evento para que auth-service revoque los refresh tokens anteriores.
      *
      * @param token el token UUID de recuperación
      * @param newPassword la nueva contraseña en texto plano (será encriptada)
@@ -186,7 +225,29 @@ public class AccountServiceImpl implements AccountService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setResetPasswordToken(null);
         user.setResetPasswordTokenExpiration(null);
+        long credentialsVersion = user.getCredentialsVersion() == null ? 1L : user.getCredentialsVersion() + 1;
+        user.setCredentialsVersion(credentialsVersion);
         userRepository.save(user);
         log.info("Contraseña restablecida exitosamente para usuario: {}", user.getEmail());
+
+        CredencialesActualizadasEvent credencialesActualizadasEvent = new CredencialesActualizadasEvent(user.getId(), user.getEmail(), credentialsVersion);
+        publishAfterCommit("user.credentials.changed", credencialesActualizadasEvent);
+        log.info("Evento de credenciales actualizadas publicado para usuario: {}", user.getEmail());
+    }
+
+    /**
+     * Publica un evento en el exchange de cuentas; dentro de una transacción, solo si esta se confirma.
+     */
+    private void publishAfterCommit(String routingKey, Object event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, routingKey, event);
+                }
+            });
+        } else {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, routingKey, event);
+        }
     }
 }
@@ -0,0 +1,248 @@
+package com.udeajobs.identity.account_service.service.implementation;
+
+import com.udeajobs.identity.account_service.config.MailSenderPool;
+import com.udeajobs.identity.account_service.entity.OutboxMail;
+import com.udeajobs.identity.account_service.enums.MAIL_STATUS;
+import com.udeajobs.identity.account_service.exception.MailQuotaExceededException;
+import com.udeajobs.identity.account_service.repository.OutboxMailRepository;
+import com.udeajobs.identity.account_service.service.interfaces.MailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Despachador de la outbox de correo.
+ *
+ * Cada {@code app.mail.outbox.poll-interval} milisegundos reclama tantos emails vencidos como
+ * workers libres haya, marcándolos como SENDING con una concesión de
+ * {@code app.mail.outbox.lease} milisegundos mediante un findAndModify atómico, de modo que
+ * varias réplicas del servicio pueden drenar la misma outbox sin enviar dos veces un email.
+ * Los emails se reclaman por prioridad ({@link com.udeajobs.identity.account_service.enums.MAIL_PRIORITY})
+ * y, dentro de ella, por antigüedad; no se reclama ninguno mientras todas las cuentas
+ * remitentes estén sin cuota.
+ * Si un worker muere a mitad de envío, el email vuelve a reclamarse cuando vence la concesión.
+ *
+ * Un envío fallido se reintenta con backoff exponencial con jitter, desde
+ * {@code initial-backoff} hasta {@code max-backoff}; si falla porque ninguna cuenta tiene
+ * cuota, se aplaza hasta que alguna la recupera sin contar como intento. Tras {@code max-attempts} intentos el
+ * email pasa a DEAD y queda en la colección para revisarlo. Los emails enviados se borran
+ * por TTL tras {@code retention} días.
+ *
+ * Métricas exportadas: {@code mail.outbox.depth} (etiqueta {@code status}: pending, dead),
+ * {@code mail.outbox.sent}, {@code mail.outbox.failures}, {@code mail.outbox.deferred}, {@code mail.outbox.dead.lettered} y
+ * {@code mail.outbox.delivery.latency} (desde el encolado hasta la entrega).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class MailOutboxDispatcher {
+
+    private final MongoTemplate mongoTemplate;
+    private final OutboxMailRepository outboxMailRepository;
+    private final MailService mailService;
+    private final MailSenderPool mailSenderPool;
+    private final ThreadPoolExecutor workers;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long leaseMs;
+
+    private final AtomicLong pendingDepth = new AtomicLong();
+    private final AtomicLong deadDepth = new AtomicLong();
+    private final Counter sent;
+    private final Counter failures;
+    private final Counter deferred;
+    private final Counter deadLettered;
+    private final Timer deliveryLatency;
+
+    /**
+     * Crea el despachador y su pool de workers.
+     *
+     * @param mongoTemplate plantilla de MongoDB para reclamar y actualizar emails
+     * @param outboxMailRepository repositorio de la outbox
+     * @param mailService servicio que entrega los emails por SMTP
+     * @param mailSenderPool cuentas remitentes, para no reclamar emails sin cuota disponible
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param workerCount envíos SMTP simultáneos
+     * @param maxAttempts intentos antes de descartar un email
+     * @param initialBackoffMs espera antes del primer reintento
+     * @param maxBackoffMs espera máxima entre reintentos
+     * @param leaseMs tiempo que un worker tiene la exclusiva de un email reclamado
+     */
+    public MailOutboxDispatcher(MongoTemplate mongoTemplate,
+                                OutboxMailRepository outboxMailRepository,
+                                MailService mailService,
+                                MailSenderPool mailSenderPool,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.mail.outbox.workers}") int workerCount,
+                                @Value("${app.mail.outbox.max-attempts}") int maxAttempts,
+                                @Value("${app.mail.outbox.initial-backoff}") long initialBackoffMs,
+                                @Value("${app.mail.outbox.max-backoff}") long maxBackoffMs,
+                                @Value("${app.mail.outbox.lease}") long leaseMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.outboxMailRepository = outboxMailRepository;
+        this.mailService = mailService;
+        this.mailSenderPool = mailSenderPool;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseMs = leaseMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("mail.outbox.depth", pendingDepth, AtomicLong::get).tag("status", "pending").register(meterRegistry);
+        Gauge.builder("mail.outbox.depth", deadDepth, AtomicLong::get).tag("status", "dead").register(meterRegistry);
+        this.sent = Counter.builder("mail.outbox.sent").register(meterRegistry);
+        this.failures = Counter.builder("mail.outbox.failures").register(meterRegistry);
+        this.deferred = Counter.builder("mail.outbox.deferred").register(meterRegistry);
+        this.deadLettered = Counter.builder("mail.outbox.dead.lettered").register(meterRegistry);
+        this.deliveryLatency = Timer.builder("mail.outbox.delivery.latency")
+                .description("Tiempo desde que un email se encola hasta que se entrega al servidor SMTP")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reclama emails vencidos hasta ocupar los workers libres y actualiza las métricas de profundidad.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval}")
+    public void dispatch() {
+        int free = mailSenderPool.hasCapacity()
+                ? workers.getMaximumPoolSize() - workers.getActiveCount() - workers.getQueue().size()
+                : 0;
+        for (int i = 0; i < free; i++) {
+            OutboxMail mail = claim();
+            if (mail == null) {
+                break;
+            }
+            workers.execute(() -> deliver(mail));
+        }
+        pendingDepth.set(outboxMailRepository.countByStatus(MAIL_STATUS.PENDING));
+        deadDepth.set(outboxMailRepository.countByStatus(MAIL_STATUS.DEAD));
+    }
+
+    /**
+     * Espera a que terminen los envíos en curso al cerrar el contexto de Spring.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private OutboxMail claim() {
+        Instant now = Instant.now();
+        Query due = Query.query(new Criteria().orOperator(
+                        Criteria.where("status").is(MAIL_STATUS.PENDING).and("nextAttemptAt").lte(now),
+                        Criteria.where("status").is(MAIL_STATUS.SENDING).and("lockedUntil").lte(now)))
+                .with(Sort.by("priority", "nextAttemptAt"));
+        Update lease = new Update()
+                .set("status", MAIL_STATUS.SENDING)
+                .set("lockedUntil", now.plusMillis(leaseMs))
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(due, lease, FindAndModifyOptions.options().returnNew(true), OutboxMail.class);
+    }
+
+    private void deliver(OutboxMail mail) {
+        // Solo el worker que tiene la concesión vigente puede cerrar el intento
+        Query owned = Query.query(Criteria.where("_id").is(mail.getId())
+                .and("status").is(MAIL_STATUS.SENDING)
+                .and("attempts").is(mail.getAttempts()));
+        try {
+            mailService.sendEmail(mail.getTo(), mail.getSubject(), mail.getTemplate(), mail.getModel());
+            Instant sentAt = Instant.now();
+            mongoTemplate.updateFirst(owned, new Update()
+                    .set("status", MAIL_STATUS.SENT)
+                    .set("sentAt", sentAt)
+                    .unset("lockedUntil")
+                    .unset("lastError"), OutboxMail.class);
+            sent.increment();
+            deliveryLatency.record(Duration.between(mail.getCreatedAt(), sentAt));
+        } catch (MailQuotaExceededException e) {
+            // Sin cuota no es un fallo del email: se devuelve el intento y se aplaza
+            mongoTemplate.updateFirst(owned, new Update()
+                    .set("status", MAIL_STATUS.PENDING)
+                    .set("nextAttemptAt", e.getRetryAt())
+                    .inc("attempts", -1)
+                    .unset("lockedUntil"), OutboxMail.class);
+            deferred.increment();
+            log.info("Email {} a {} aplazado hasta {} por falta de cuota de envío", mail.getId(), mail.getTo(), e.getRetryAt());
+        } catch (RuntimeException e) {
+            failures.increment();
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            if (mail.getAttempts() >= maxAttempts) {
+                mongoTemplate.updateFirst(owned, new Update()
+                        .set("status", MAIL_STATUS.DEAD)
+                        .set("lastError", error)
+                        .unset("lockedUntil"), OutboxMail.class);
+                deadLettered.increment();
+                log.error("Email {} a {} descartado tras {} intentos: {}", mail.getId(), mail.getTo(), mail.getAttempts(), error);
+            } else {
+                long backoff = backoff(mail.getAttempts());
+                mongoTemplate.updateFirst(owned, new Update()
+                        .set("status", MAIL_STATUS.PENDING)
+                        .set("nextAttemptAt", Instant.now().plusMillis(backoff))
+                        .set("lastError", error)
+                        .unset("lockedUntil"), OutboxMail.class);
+                log.warn("Fallo al enviar el email {} a {} (intento {}); reintento en {} ms", mail.getId(), mail.getTo(), mail.getAttempts(), backoff);
+            }
+        }
+    }
+
+    /**
+     * Tiempo mínimo, desde que se encola, que tarda un email en pasar a DEAD.
+     *
+     * Cada intento fallido espera al menos la mitad de su backoff (el jitter mínimo), o la
+     * concesión si el worker murió sin cerrar el intento; ningún email encolado hace menos
+     * de este tiempo puede estar descartado.
+     *
+     * @return tiempo mínimo hasta el descarte
+     */
+    public Duration earliestDeadLetter() {
+        long total = 0;
+        for (int attempt = 1; attempt < maxAttempts; attempt++) {
+            total += Math.min(cappedBackoff(attempt) / 2, leaseMs);
+        }
+        return Duration.ofMillis(total);
+    }
+
+    private long backoff(int attempt) {
+        long capped = cappedBackoff(attempt);
+        // Jitter entre el 50% y el 100% para que los reintentos de una caída no lleguen juntos
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private long cappedBackoff(int attempt) {
+        long exponential = initialBackoffMs << Math.min(attempt - 1, 20);
+        return Math.min(maxBackoffMs, exponential);
+    }
+}
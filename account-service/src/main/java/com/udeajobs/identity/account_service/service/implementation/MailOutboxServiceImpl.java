@@ -0,0 +1,175 @@
+package com.udeajobs.identity.account_service.service.implementation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.udeajobs.identity.account_service.entity.OutboxMail;
+import com.udeajobs.identity.account_service.enums.MAIL_PRIORITY;
+import com.udeajobs.identity.account_service.enums.MAIL_STATUS;
+import com.udeajobs.identity.account_service.repository.OutboxMailRepository;
+import com.udeajobs.identity.account_service.service.interfaces.MailOutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación del encolado de correos electrónicos en la outbox de MongoDB.
+ *
+ * Los emails repetidos de una misma plantilla para un mismo destinatario dentro de la
+ * ventana {@code app.mail.coalesce.window} se agrupan:
+ *
+ * <ul>
+ *   <li>Si el email anterior sigue pendiente, se sustituyen su modelo y su clave de
+ *       agrupación por los nuevos y no se encola otro.</li>
+ *   <li>Si el email anterior, con la misma clave de agrupación, ya se está enviando o se
+ *       envió, el nuevo se descarta. Con otra clave (p. ej. un token de recuperación nuevo),
+ *       o si el anterior acabó en DEAD, el nuevo se encola.</li>
+ * </ul>
+ *
+ * Una caché acotada en memoria ({@code app.mail.coalesce.max-size} claves) descarta las
+ * repeticiones vistas por esta réplica sin consultar MongoDB; la consulta a la outbox cubre
+ * las repeticiones que llegan a otra réplica. La caché solo responde mientras el email
+ * recordado no puede haber pasado a DEAD ({@link MailOutboxDispatcher#earliestDeadLetter()}
+ * desde que se encoló), así que nunca descarta un email cuyo anterior se perdió.
+ *
+ * Métrica exportada: {@code mail.outbox.coalesced} con las etiquetas {@code template} y
+ * {@code result} (memory, merged, suppressed).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+public class MailOutboxServiceImpl implements MailOutboxService {
+
+    private static final List<MAIL_STATUS> DELIVERED_OR_IN_FLIGHT = List.of(MAIL_STATUS.SENDING, MAIL_STATUS.SENT);
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration coalesceWindow;
+
+    /**
+     * Tiempo, desde que se encola, durante el que un email recordado en memoria basta para descartar otro.
+     */
+    private final Duration memoryWindow;
+
+    /**
+     * Momento en que se encoló el email que cubre cada destinatario, plantilla y clave de agrupación.
+     */
+    private final Cache<String, Instant> recentlyEnqueued;
+
+    /**
+     * Crea el servicio y su caché de emails recientes.
+     *
+     * @param outboxMailRepository repositorio de la outbox
+     * @param mongoTemplate plantilla de MongoDB para agrupar emails pendientes
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param dispatcher despachador de la outbox, que acota cuánto puede tardar un email en descartarse
+     * @param coalesceWindowMs ventana en milisegundos en la que se agrupan los emails repetidos
+     * @param maxSize destinatarios recordados en memoria como máximo
+     */
+    public MailOutboxServiceImpl(OutboxMailRepository outboxMailRepository,
+                                 MongoTemplate mongoTemplate,
+                                 MeterRegistry meterRegistry,
+                                 MailOutboxDispatcher dispatcher,
+                                 @Value("${app.mail.coalesce.window}") long coalesceWindowMs,
+                                 @Value("${app.mail.coalesce.max-size}") long maxSize) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.coalesceWindow = Duration.ofMillis(coalesceWindowMs);
+        Duration earliestDeadLetter = dispatcher.earliestDeadLetter();
+        this.memoryWindow = earliestDeadLetter.compareTo(coalesceWindow) < 0 ? earliestDeadLetter : coalesceWindow;
+        this.recentlyEnqueued = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(memoryWindow)
+                .build();
+    }
+
+    @Override
+    public void enqueue(String to, String subject, String template, Map<String, Object> model, MAIL_PRIORITY priority,
+                        String dedupeKey) {
+        String key = to + "|" + template + "|" + dedupeKey;
+        Instant now = Instant.now();
+        Instant remembered = recentlyEnqueued.getIfPresent(key);
+        if (remembered != null && remembered.isAfter(now.minus(memoryWindow))) {
+            coalesced(template, "memory");
+            log.debug("Email con plantilla {} para {} descartado: ya se encoló uno igual hace menos de {}", template, to, memoryWindow);
+            return;
+        }
+
+        Instant windowStart = now.minus(coalesceWindow);
+        Query pending = Query.query(Criteria.where("to").is(to)
+                .and("template").is(template)
+                .and("status").is(MAIL_STATUS.PENDING)
+                .and("createdAt").gt(windowStart));
+        Update merge = new Update().set("subject", subject).set("model", model).set("dedupeKey", dedupeKey);
+        OutboxMail merged = mongoTemplate.findAndModify(pending, merge, OutboxMail.class);
+        if (merged != null) {
+            coalesced(template, "merged");
+            remember(key, merged.getCreatedAt());
+            log.debug("Email con plantilla {} para {} agrupado con el pendiente", template, to);
+            return;
+        }
+        // Solo se descarta si lo enviado lleva el mismo contenido; los DEAD no cuentan como enviados
+        OutboxMail delivered = outboxMailRepository
+                .findFirstByToAndTemplateAndDedupeKeyAndStatusInAndCreatedAtAfterOrderByCreatedAtAsc(
+                        to, template, dedupeKey, DELIVERED_OR_IN_FLIGHT, windowStart)
+                .orElse(null);
+        if (delivered != null) {
+            coalesced(template, "suppressed");
+            remember(key, delivered.getCreatedAt());
+            log.debug("Email con plantilla {} para {} descartado: ya se envió uno igual hace menos de {}", template, to, coalesceWindow);
+            return;
+        }
+
+        OutboxMail mail = outboxMailRepository.save(OutboxMail.builder()
+                .to(to)
+                .subject(subject)
+                .template(template)
+                .model(model)
+                .dedupeKey(dedupeKey)
+                .priority(priority.getLevel())
+                .status(MAIL_STATUS.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        remember(key, now);
+        log.debug("Email {} con plantilla {} encolado para: {}", mail.getId(), template, to);
+    }
+
+    /**
+     * Recuerda en memoria el momento en que se encoló el email que cubre la clave; dentro de
+     * una transacción, solo si esta se confirma.
+     */
+    private void remember(String key, Instant enqueuedAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentlyEnqueued.put(key, enqueuedAt);
+                }
+            });
+        } else {
+            recentlyEnqueued.put(key, enqueuedAt);
+        }
+    }
+
+    private void coalesced(String template, String result) {
+        meterRegistry.counter("mail.outbox.coalesced", "template", template, "result", result).increment();
+    }
+}
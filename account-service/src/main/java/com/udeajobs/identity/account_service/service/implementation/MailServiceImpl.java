@@ -1,17 +1,17 @@
 package com.udeajobs.identity.account_service.service.implementation;
 
+import com.udeajobs.identity.account_service.config.MailSenderPool;
 import com.udeajobs.identity.account_service.service.interfaces.MailService;
+import jakarta.activation.DataHandler;
+import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.ByteArrayDataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Profile;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.mail.MailException;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 
 import java.util.Map;
@@ -19,9 +19,11 @@ import java.util.Map;
 /**
  * Implementación del servicio de correo electrónico para entorno de producción.
  *
- * Esta clase maneja el envío real de emails utilizando JavaMailSender y plantillas
- * Thymeleaf. Solo está activa en el perfil de producción para evitar envíos
- * accidentales durante el desarrollo y testing.
+ * Esta clase maneja el envío real de emails utilizando las cuentas remitentes de
+ * {@link MailSenderPool} y plantillas Thymeleaf precompiladas por
+ * {@link PrecompiledTemplateRenderer}. El mensaje es una única parte text/html cuyo cuerpo
+ * son directamente los bytes renderizados. Cada envío usa una cuenta con cuota
+ * disponible; si el servidor SMTP limita esa cuenta, el email se reenvía por la siguiente.
  *
  * @author UdeAJobs Team
  * @version 1.0
@@ -32,50 +34,52 @@ import java.util.Map;
 @Slf4j
 public class MailServiceImpl implements MailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
-
-    /** Dirección de correo electrónico remitente configurada en las propiedades */
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final MailSenderPool mailSenderPool;
+    private final PrecompiledTemplateRenderer templateRenderer;
 
     /**
-     * Envía un correo electrónico utilizando una plantilla HTML procesada con Thymeleaf.
+     * Envía un correo electrónico utilizando una plantilla HTML precompilada.
      *
-     * Crea un mensaje MIME, procesa la plantilla con las variables proporcionadas,
-     * configura los destinatarios y envía el email. Incluye manejo de errores
-     * y logging para monitoreo.
+     * Procesa la plantilla con las variables proporcionadas y envía el email por la primera
+     * cuenta remitente con cuota disponible. Incluye manejo de errores y logging para monitoreo.
      *
      * @param to dirección de correo electrónico del destinatario
      * @param subject asunto del correo electrónico
      * @param template nombre de la plantilla HTML a procesar
      * @param model mapa con variables para la plantilla
+     * @throws com.udeajobs.identity.account_service.exception.MailQuotaExceededException si ninguna cuenta tiene cuota
      * @throws RuntimeException si ocurre un error durante el envío
      */
     @Override
     public void sendEmail(String to, String subject, String template, Map<String, Object> model) {
         log.info("Iniciando envío de email a: {} con plantilla: {}", to, template);
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            Context context = new Context();
-            context.setVariables(model);
-
-            String htmlContent = templateEngine.process(template, context);
-            log.debug("Plantilla HTML procesada exitosamente para: {}", to);
 
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
+        byte[] htmlContent = templateRenderer.render(template, model);
+        log.debug("Plantilla HTML procesada exitosamente para: {}", to);
 
-            mailSender.send(message);
-            log.info("Email enviado exitosamente a: {}", to);
+        // acquire() lanza MailQuotaExceededException cuando todas las cuentas quedan apartadas
+        while (true) {
+            MailSenderPool.Account account = mailSenderPool.acquire();
+            try {
+                MimeMessage message = account.getSender().createMimeMessage();
+                message.setFrom(new InternetAddress(account.getFrom()));
+                message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to));
+                message.setSubject(subject, "UTF-8");
+                message.setDataHandler(new DataHandler(new ByteArrayDataSource(htmlContent, "text/html; charset=UTF-8")));
 
-        } catch (MessagingException e) {
-            log.error("Error al enviar email a: {}", to, e);
-            throw new RuntimeException("Error sending email", e);
+                account.getSender().send(message);
+                mailSenderPool.sent(account);
+                log.info("Email enviado exitosamente a: {} desde la cuenta {}", to, account.getName());
+                return;
+            } catch (MailException e) {
+                if (!mailSenderPool.throttledBy(account, e)) {
+                    log.error("Error al enviar email a: {}", to, e);
+                    throw new RuntimeException("Error sending email", e);
+                }
+            } catch (MessagingException e) {
+                log.error("Error al enviar email a: {}", to, e);
+                throw new RuntimeException("Error sending email", e);
+            }
         }
     }
 }
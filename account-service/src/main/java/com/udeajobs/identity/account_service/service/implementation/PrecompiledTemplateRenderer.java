@@ -0,0 +1,205 @@
+package com.udeajobs.identity.account_service.service.implementation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renderizador de plantillas de email precompiladas.
+ *
+ * Al arrancar procesa cada plantilla de {@code classpath:templates/} con Thymeleaf una sola
+ * vez, sustituyendo cada variable {@code ${nombre}} por un marcador único, y parte el HTML
+ * resultante en segmentos estáticos (ya codificados en UTF-8) y huecos de variable. Renderizar
+ * es entonces concatenar los segmentos con los valores escapados para HTML, igual que hace
+ * {@code th:text} o {@code th:href}, sin volver a recorrer el documento ni su bloque de estilos.
+ *
+ * La precompilación se comprueba procesando la plantilla con un segundo juego de marcadores;
+ * si el resultado no coincide (una variable usada en una condición o transformada por una
+ * expresión), la plantilla se sigue procesando con Thymeleaf en cada envío. Lo mismo ocurre
+ * si al modelo le falta alguna variable o alguna es null.
+ *
+ * Métrica exportada: {@code mail.template.render} con las etiquetas {@code template} y
+ * {@code mode} (precompiled, thymeleaf).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class PrecompiledTemplateRenderer implements ApplicationRunner {
+
+    private static final String TEMPLATE_LOCATION = "classpath:templates/*.html";
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{\\s*(\\w+)\\s*}");
+
+    private final TemplateEngine templateEngine;
+    private final ResourcePatternResolver resourceResolver;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompiledTemplate> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Crea el renderizador.
+     *
+     * @param templateEngine motor de plantillas de Thymeleaf
+     * @param resourceResolver resolutor de recursos para localizar las plantillas
+     * @param meterRegistry registro de métricas de Micrometer
+     */
+    public PrecompiledTemplateRenderer(TemplateEngine templateEngine,
+                                       ResourcePatternResolver resourceResolver,
+                                       MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.resourceResolver = resourceResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (Resource resource : resourceResolver.getResources(TEMPLATE_LOCATION)) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            String template = filename.substring(0, filename.length() - ".html".length());
+            Set<String> variables = new LinkedHashSet<>();
+            Matcher matcher = VARIABLE.matcher(resource.getContentAsString(StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                variables.add(matcher.group(1));
+            }
+            CompiledTemplate compiledTemplate = compile(template, variables);
+            if (compiledTemplate != null) {
+                compiled.put(template, compiledTemplate);
+                log.info("Plantilla {} precompilada en {} segmentos", template, compiledTemplate.segments().size());
+            } else {
+                log.warn("La plantilla {} no admite precompilación; se procesará con Thymeleaf en cada envío", template);
+            }
+        }
+    }
+
+    /**
+     * Renderiza una plantilla como HTML codificado en UTF-8.
+     *
+     * @param template nombre de la plantilla (sin extensión)
+     * @param model variables de la plantilla
+     * @return HTML renderizado en UTF-8
+     */
+    public byte[] render(String template, Map<String, Object> model) {
+        CompiledTemplate compiledTemplate = compiled.get(template);
+        if (compiledTemplate != null && compiledTemplate.accepts(model)) {
+            meterRegistry.counter("mail.template.render", "template", template, "mode", "precompiled").increment();
+            return compiledTemplate.render(model);
+        }
+        meterRegistry.counter("mail.template.render", "template", template, "mode", "thymeleaf").increment();
+        Context context = new Context();
+        context.setVariables(model);
+        return templateEngine.process(template, context).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private CompiledTemplate compile(String template, Set<String> variables) {
+        Map<String, String> markers = markers(variables);
+        String html = process(template, markers);
+
+        List<byte[]> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int next = -1;
+            String slot = null;
+            for (Map.Entry<String, String> marker : markers.entrySet()) {
+                int index = html.indexOf(marker.getValue(), position);
+                if (index >= 0 && (next < 0 || index < next)) {
+                    next = index;
+                    slot = marker.getKey();
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            segments.add(html.substring(position, next).getBytes(StandardCharsets.UTF_8));
+            slots.add(slot);
+            position = next + markers.get(slot).length();
+        }
+        segments.add(html.substring(position).getBytes(StandardCharsets.UTF_8));
+        CompiledTemplate compiledTemplate = new CompiledTemplate(segments, slots, Set.copyOf(variables));
+
+        // Con otros marcadores la concatenación debe dar exactamente lo que produce Thymeleaf
+        Map<String, String> check = markers(variables);
+        String expected = process(template, check);
+        String actual = new String(compiledTemplate.concat(slots.stream().map(check::get).toList()), StandardCharsets.UTF_8);
+        return expected.equals(actual) ? compiledTemplate : null;
+    }
+
+    private String process(String template, Map<String, String> values) {
+        Context context = new Context();
+        values.forEach(context::setVariable);
+        return templateEngine.process(template, context);
+    }
+
+    private static Map<String, String> markers(Set<String> variables) {
+        Map<String, String> markers = new LinkedHashMap<>();
+        // Solo letras y dígitos: ningún escape de HTML ni de URL los altera
+        variables.forEach(variable -> markers.put(variable, "x" + UUID.randomUUID().toString().replace("-", "") + "x"));
+        return markers;
+    }
+
+    /**
+     * Plantilla partida en segmentos estáticos y huecos de variable.
+     *
+     * @param segments segmentos estáticos en UTF-8; hay uno más que huecos
+     * @param slots variable que ocupa cada hueco, en orden
+     * @param variables variables que necesita la plantilla
+     */
+    private record CompiledTemplate(List<byte[]> segments, List<String> slots, Set<String> variables) {
+
+        boolean accepts(Map<String, Object> model) {
+            for (String variable : variables) {
+                if (model.get(variable) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        byte[] render(Map<String, Object> model) {
+            return concat(slots.stream().map(slot -> HtmlUtils.htmlEscape(String.valueOf(model.get(slot)), "UTF-8")).toList());
+        }
+
+        byte[] concat(List<String> values) {
+            List<byte[]> encoded = values.stream().map(value -> value.getBytes(StandardCharsets.UTF_8)).toList();
+            int size = 0;
+            for (byte[] segment : segments) {
+                size += segment.length;
+            }
+            for (byte[] value : encoded) {
+                size += value.length;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+            for (int i = 0; i < encoded.size(); i++) {
+                out.writeBytes(segments.get(i));
+                out.writeBytes(encoded.get(i));
+            }
+            out.writeBytes(segments.get(segments.size() - 1));
+            return out.toByteArray();
+        }
+    }
+}
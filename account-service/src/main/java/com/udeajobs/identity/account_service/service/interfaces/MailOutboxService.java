@@ -0,0 +1,36 @@
+package com.udeajobs.identity.account_service.service.interfaces;
+
+import com.udeajobs.identity.account_service.enums.MAIL_PRIORITY;
+
+import java.util.Map;
+
+/**
+ * Interfaz de servicio para encolar correos electrónicos en la outbox.
+ *
+ * Los emails encolados se envían de forma asíncrona, con reintentos, por el
+ * despachador de la outbox; quien encola solo paga una escritura en MongoDB.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public interface MailOutboxService {
+
+    /**
+     * Encola un correo electrónico basado en una plantilla HTML.
+     *
+     * Si se invoca dentro de una transacción, el email solo se enviará si la transacción
+     * se confirma. Si poco antes se encoló un email de la misma plantilla para el mismo
+     * destinatario, el nuevo se agrupa con él: sustituye al anterior si aún no se envió, y se
+     * descarta si el anterior ya se envió con la misma {@code dedupeKey}.
+     *
+     * @param to dirección de correo electrónico del destinatario
+     * @param subject asunto del correo electrónico
+     * @param template nombre de la plantilla HTML a utilizar (sin extensión)
+     * @param model mapa con variables para personalizar la plantilla
+     * @param priority prioridad de envío frente al resto de emails pendientes
+     * @param dedupeKey clave que identifica el contenido del email (p. ej. el token que enlaza)
+     */
+    void enqueue(String to, String subject, String template, Map<String, Object> model, MAIL_PRIORITY priority,
+                 String dedupeKey);
+}
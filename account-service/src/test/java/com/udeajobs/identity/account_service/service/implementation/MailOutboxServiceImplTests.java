@@ -0,0 +1,61 @@
+package com.udeajobs.identity.account_service.service.implementation;
+
+import com.udeajobs.identity.account_service.entity.OutboxMail;
+import com.udeajobs.identity.account_service.enums.MAIL_PRIORITY;
+import com.udeajobs.identity.account_service.repository.OutboxMailRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailOutboxServiceImplTests {
+
+	private final OutboxMailRepository repository = mock(OutboxMailRepository.class);
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+	@Test
+	void aNewTokenIsSentEvenIfTheLastEmailWasEnqueuedWithinTheWindow() {
+		MailOutboxServiceImpl service = service(Duration.ofHours(1));
+
+		service.enqueue("ana@udea.edu.co", "Reset", "password-reset-link", Map.of(), MAIL_PRIORITY.PASSWORD_RESET, "token-a");
+		service.enqueue("ana@udea.edu.co", "Reset", "password-reset-link", Map.of(), MAIL_PRIORITY.PASSWORD_RESET, "token-a");
+		service.enqueue("ana@udea.edu.co", "Reset", "password-reset-link", Map.of(), MAIL_PRIORITY.PASSWORD_RESET, "token-b");
+
+		verify(repository, times(2)).save(any(OutboxMail.class));
+	}
+
+	@Test
+	void emailsThatMayHaveBeenDeadLetteredAreNotSuppressedFromMemory() {
+		MailOutboxServiceImpl service = service(Duration.ZERO);
+
+		service.enqueue("ana@udea.edu.co", "Reset", "password-reset-link", Map.of(), MAIL_PRIORITY.PASSWORD_RESET, "token-a");
+		service.enqueue("ana@udea.edu.co", "Reset", "password-reset-link", Map.of(), MAIL_PRIORITY.PASSWORD_RESET, "token-a");
+
+		verify(repository, times(2)).save(any(OutboxMail.class));
+	}
+
+	private MailOutboxServiceImpl service(Duration earliestDeadLetter) {
+		when(repository.findFirstByToAndTemplateAndDedupeKeyAndStatusInAndCreatedAtAfterOrderByCreatedAtAsc(
+				anyString(), anyString(), anyString(), anyCollection(), any()))
+				.thenReturn(Optional.empty());
+		when(repository.save(any(OutboxMail.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(OutboxMail.class))).thenReturn(null);
+		MailOutboxDispatcher dispatcher = mock(MailOutboxDispatcher.class);
+		when(dispatcher.earliestDeadLetter()).thenReturn(earliestDeadLetter);
+		return new MailOutboxServiceImpl(repository, mongoTemplate, new SimpleMeterRegistry(), dispatcher, 300_000, 100);
+	}
+}
@@ -2,6 +2,7 @@ package com.udeajobs.identity.auth_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación Auth Service de UdeAJobs.
@@ -12,7 +13,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * <p>Características principales:
  * <ul>
  *     <li>Autenticación con Spring Security</li>
- *     <li>Generación de JWT tokens</li>
+ *     <li>Generación de JWT tokens con rotación de claves</li>
  *     <li>Refresh tokens para renovación de acceso</li>
  *     <li>Integración con MongoDB</li>
  *     <li>Documentación con OpenAPI/Swagger</li>
@@ -23,6 +24,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @since 1.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class AuthServiceApplication {
 
 	/**
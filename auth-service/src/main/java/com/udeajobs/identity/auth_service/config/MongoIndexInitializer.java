@@ -0,0 +1,67 @@
+package com.udeajobs.identity.auth_service.config;
+
+import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Crea y verifica al arrancar los índices declarados en las entidades.
+ *
+ * Spring Boot no crea automáticamente los índices anotados con {@code @Indexed} o
+ * {@code @CompoundIndex}; este componente los resuelve a partir del mapeo de cada entidad,
+ * los crea si no existen (operación idempotente) y comprueba después que todos están
+ * presentes. Si alguno falta o entra en conflicto con un índice existente, el arranque
+ * falla en lugar de degradar silenciosamente las consultas a recorridos completos.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    /**
+     * Entidades cuyos índices declarados se gestionan al arrancar.
+     */
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(RefreshToken.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            List<String> expected = new ArrayList<>();
+            resolver.resolveIndexFor(entity).forEach(index -> expected.add(indexOps.createIndex(index)));
+
+            Set<String> existing = indexOps.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            List<String> missing = expected.stream().filter(name -> !existing.contains(name)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Missing indexes on " + mongoTemplate.getCollectionName(entity) + ": " + missing);
+            }
+            log.info("Índices verificados en {}: {}", mongoTemplate.getCollectionName(entity), expected);
+        }
+    }
+}
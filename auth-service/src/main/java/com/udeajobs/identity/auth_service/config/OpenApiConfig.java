@@ -42,12 +42,14 @@ public class OpenApiConfig {
                                 - 🔐 **Login de usuarios**: Autenticación con email y contraseña
                                 - 🎫 **Generación de tokens JWT**: Emisión de access tokens y refresh tokens
                                 - 🔄 **Renovación de tokens**: Actualización de access tokens mediante refresh tokens
-                                - 👤 **Gestión de sesiones**: Manejo del ciclo de vida de tokens de acceso
+                                - 🔎 **Introspección de tokens**: Validación individual o por lotes de access tokens
+                                - 👤 **Gestión de sesiones**: Listado y revocación de sesiones, con límite de sesiones por usuario
                                 
                                 ### Seguridad
                                 - Autenticación con Spring Security
-                                - Tokens JWT con firma HMAC-SHA256
-                                - Refresh tokens con expiración configurable
+                                - Tokens JWT con firma HMAC-SHA256, ES256 o EdDSA y rotación de claves por `kid`
+                                - Claves públicas publicadas en `/.well-known/jwks.json` para verificación local
+                                - Refresh tokens con expiración configurable, rotación opcional y detección de reutilización
                                 - Contraseñas encriptadas con BCrypt
                                 
                                 ### Tokens
@@ -56,7 +58,7 @@ public class OpenApiConfig {
                                 
                                 ### Base de datos
                                 - MongoDB para almacenamiento NoSQL
-                                - Colecciones: `user`, `refresh_tokens`
+                                - Colecciones: `user`, `refresh_tokens`, `user_sessions`
                                 """)
                         .version("1.0.0")
                         .contact(new Contact()
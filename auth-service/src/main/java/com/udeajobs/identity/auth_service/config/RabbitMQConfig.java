@@ -0,0 +1,158 @@
+package com.udeajobs.identity.auth_service.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de RabbitMQ para el servicio de autenticación.
+ *
+ * Declara la cola en la que auth-service recibe los eventos de account-service que
+ * afectan a los tokens emitidos, enlazada al Topic Exchange de cuentas.
+ *
+ * Los eventos que invalidan cachés locales se reparten además a una cola anónima por
+ * instancia (exclusiva y autoeliminable), de modo que cada réplica descarta su propia copia;
+ * la cola durable compartida queda solo para el trabajo que debe hacerse una única vez.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    /** Nombre del exchange en el que publica el servicio de cuentas */
+    public static final String EXCHANGE_NAME = "account.exchange";
+
+    /** Cola de eventos de cambio de credenciales consumida por auth-service */
+    public static final String CREDENTIALS_CHANGED_QUEUE = "auth.credentials-changed";
+
+    /** Routing key de los eventos de cambio de credenciales */
+    public static final String CREDENTIALS_CHANGED_ROUTING_KEY = "user.credentials.changed";
+
+    /** Prefijo de la cola por instancia de cambios de credenciales, usada para invalidar cachés */
+    public static final String CREDENTIALS_CHANGED_CACHE_QUEUE_PREFIX = "auth.credentials-changed.cache-";
+
+    /** Prefijo de la cola por instancia de eventos de cuenta verificada */
+    public static final String USER_VERIFIED_QUEUE_PREFIX = "auth.user-verified-";
+
+    /** Routing key de los eventos de cuenta verificada */
+    public static final String USER_VERIFIED_ROUTING_KEY = "user.verified";
+
+    /** Prefijo de la cola por instancia de eventos de cuenta registrada */
+    public static final String USER_REGISTERED_QUEUE_PREFIX = "auth.user-registered-";
+
+    /** Routing key de los eventos de cuenta registrada */
+    public static final String USER_REGISTERED_ROUTING_KEY = "user.registered";
+
+    /**
+     * Declara el Topic Exchange del servicio de cuentas (idempotente si ya existe).
+     *
+     * @return una instancia configurada de TopicExchange
+     */
+    @Bean
+    public TopicExchange accountServiceExchange() {
+        return new TopicExchange(EXCHANGE_NAME);
+    }
+
+    /**
+     * Cola durable para los eventos de cambio de credenciales.
+     *
+     * @return la cola de cambios de credenciales
+     */
+    @Bean
+    public Queue credentialsChangedQueue() {
+        return new Queue(CREDENTIALS_CHANGED_QUEUE, true);
+    }
+
+    /**
+     * Enlaza la cola de cambios de credenciales con el exchange de cuentas.
+     *
+     * @param credentialsChangedQueue cola de cambios de credenciales
+     * @param accountServiceExchange exchange del servicio de cuentas
+     * @return el binding entre ambos
+     */
+    @Bean
+    public Binding credentialsChangedBinding(Queue credentialsChangedQueue, TopicExchange accountServiceExchange) {
+        return BindingBuilder.bind(credentialsChangedQueue).to(accountServiceExchange).with(CREDENTIALS_CHANGED_ROUTING_KEY);
+    }
+
+    /**
+     * Cola anónima de esta instancia para los eventos de cambio de credenciales, con la que
+     * cada réplica invalida sus cachés locales.
+     *
+     * @return la cola de cambios de credenciales de esta instancia
+     */
+    @Bean
+    public AnonymousQueue credentialsChangedCacheQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(CREDENTIALS_CHANGED_CACHE_QUEUE_PREFIX));
+    }
+
+    /**
+     * Enlaza la cola de cambios de credenciales de esta instancia con el exchange de cuentas.
+     *
+     * @param credentialsChangedCacheQueue cola de cambios de credenciales de esta instancia
+     * @param accountServiceExchange exchange del servicio de cuentas
+     * @return el binding entre ambos
+     */
+    @Bean
+    public Binding credentialsChangedCacheBinding(AnonymousQueue credentialsChangedCacheQueue, TopicExchange accountServiceExchange) {
+        return BindingBuilder.bind(credentialsChangedCacheQueue).to(accountServiceExchange).with(CREDENTIALS_CHANGED_ROUTING_KEY);
+    }
+
+    /**
+     * Cola anónima de esta instancia para los eventos de cuenta verificada (cambio de estado del usuario).
+     *
+     * @return la cola de cuentas verificadas de esta instancia
+     */
+    @Bean
+    public AnonymousQueue userVerifiedQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(USER_VERIFIED_QUEUE_PREFIX));
+    }
+
+    /**
+     * Enlaza la cola de cuentas verificadas con el exchange de cuentas.
+     *
+     * @param userVerifiedQueue cola de cuentas verificadas
+     * @param accountServiceExchange exchange del servicio de cuentas
+     * @return el binding entre ambos
+     */
+    @Bean
+    public Binding userVerifiedBinding(AnonymousQueue userVerifiedQueue, TopicExchange accountServiceExchange) {
+        return BindingBuilder.bind(userVerifiedQueue).to(accountServiceExchange).with(USER_VERIFIED_ROUTING_KEY);
+    }
+
+    /**
+     * Cola anónima de esta instancia para los eventos de cuenta registrada, con la que cada
+     * réplica mantiene su propio filtro de emails registrados.
+     *
+     * @return la cola de cuentas registradas de esta instancia
+     */
+    @Bean
+    public AnonymousQueue userRegisteredQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(USER_REGISTERED_QUEUE_PREFIX));
+    }
+
+    /**
+     * Enlaza la cola de cuentas registradas con el exchange de cuentas.
+     *
+     * @param userRegisteredQueue cola de cuentas registradas
+     * @param accountServiceExchange exchange del servicio de cuentas
+     * @return el binding entre ambos
+     */
+    @Bean
+    public Binding userRegisteredBinding(AnonymousQueue userRegisteredQueue, TopicExchange accountServiceExchange) {
+        return BindingBuilder.bind(userRegisteredQueue).to(accountServiceExchange).with(USER_REGISTERED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
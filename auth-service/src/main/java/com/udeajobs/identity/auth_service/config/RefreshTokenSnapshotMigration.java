@@ -0,0 +1,93 @@
+package com.udeajobs.identity.auth_service.config;
+
+import com.mongodb.DBRef;
+import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import com.udeajobs.identity.auth_service.entity.TokenSubject;
+import com.udeajobs.identity.auth_service.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Migración de arranque que convierte los refresh tokens con {@code @DBRef} al formato embebido.
+ *
+ * Los documentos antiguos de {@code refresh_tokens} guardan una referencia {@code user};
+ * esta migración carga los usuarios referenciados por lotes, escribe la copia
+ * {@link TokenSubject} en el campo {@code subject} y elimina la referencia. Los tokens
+ * cuyo usuario ya no existe se borran. Es idempotente: solo procesa documentos que aún
+ * tienen el campo {@code user}, así que en arranques posteriores no hace nada.
+ *
+ * Se ejecuta al terminar de crear los singletons, antes de que arranque el servidor web:
+ * ninguna petición de renovación puede llegar a un token que aún no tiene {@code subject}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenSnapshotMigration implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long migrated = 0;
+        long orphaned = 0;
+        Query legacy = Query.query(Criteria.where("user").exists(true)).limit(BATCH_SIZE);
+        legacy.fields().include("user");
+
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(legacy, Document.class, RefreshToken.COLLECTION)).isEmpty()) {
+            List<Object> userIds = batch.stream()
+                    .map(document -> document.get("user") instanceof DBRef ref ? ref.getId() : null)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+            Map<String, User> users = mongoTemplate.find(Query.query(Criteria.where("_id").in(userIds)), User.class)
+                    .stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RefreshToken.COLLECTION);
+            for (Document document : batch) {
+                Query byId = Query.query(Criteria.where("_id").is(document.get("_id")));
+                User user = document.get("user") instanceof DBRef ref ? users.get(String.valueOf(ref.getId())) : null;
+                if (user == null) {
+                    operations.remove(byId);
+                    orphaned++;
+                } else {
+                    TokenSubject subject = TokenSubject.from(user);
+                    operations.updateOne(byId, new Update()
+                            .set("subject", new Document("userId", subject.getUserId())
+                                    .append("email", subject.getEmail())
+                                    .append("role", subject.getRole())
+                                    .append("credentialsVersion", subject.getCredentialsVersion()))
+                            .unset("user"));
+                    migrated++;
+                }
+            }
+            operations.execute();
+        }
+
+        if (migrated > 0 || orphaned > 0) {
+            log.info("Migración de refresh tokens completada: {} convertidos, {} eliminados por usuario inexistente",
+                    migrated, orphaned);
+        }
+    }
+}
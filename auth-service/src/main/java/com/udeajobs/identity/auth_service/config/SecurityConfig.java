@@ -1,16 +1,25 @@
 package com.udeajobs.identity.auth_service.config;
 
+import com.udeajobs.identity.auth_service.security.AdaptiveBCryptPasswordEncoder;
+import com.udeajobs.identity.auth_service.security.BoundedPasswordEncoder;
+import com.udeajobs.identity.auth_service.security.CachingDaoAuthenticationProvider;
+import com.udeajobs.identity.auth_service.security.VerifiedCredentialCache;
+import com.udeajobs.identity.auth_service.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configuración de seguridad de Spring Security para el servicio de autenticación.
  *
@@ -28,13 +37,55 @@ public class SecurityConfig {
      * Configura el codificador de contraseñas usando BCrypt.
      *
      * BCrypt es un algoritmo de hash adaptativo que incluye sal automáticamente
-     * y es resistente a ataques de fuerza bruta.
+     * y es resistente a ataques de fuerza bruta. Se ejecuta en un pool acotado de hilos
+     * para que una ráfaga de logins no deje sin CPU al resto de endpoints.
+     *
+     * @param threads hilos de hashing (0 = número de núcleos)
+     * @param queueCapacity operaciones que pueden esperar en cola
+     * @param maxWait espera máxima en milisegundos antes de responder 503
+     * @param retryAfter segundos sugeridos en la cabecera Retry-After
+     * @param strength costo BCrypt fijo (0 = calibrar al arrancar)
+     * @param targetMillis latencia objetivo por hash usada en la calibración
+     * @param minStrength costo BCrypt mínimo
+     * @param maxStrength costo BCrypt máximo
+     * @param meterRegistry registro de métricas de Micrometer
+     * @return BCrypt con costo calibrado envuelto en un {@link BoundedPasswordEncoder}
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${app.hashing.threads}") int threads,
+                                           @Value("${app.hashing.queue-capacity}") int queueCapacity,
+                                           @Value("${app.hashing.max-wait}") long maxWait,
+                                           @Value("${app.hashing.retry-after}") long retryAfter,
+                                           @Value("${app.hashing.bcrypt.strength}") int strength,
+                                           @Value("${app.hashing.bcrypt.target-ms}") long targetMillis,
+                                           @Value("${app.hashing.bcrypt.min-strength}") int minStrength,
+                                           @Value("${app.hashing.bcrypt.max-strength}") int maxStrength,
+                                           MeterRegistry meterRegistry) {
+        AdaptiveBCryptPasswordEncoder bcrypt = new AdaptiveBCryptPasswordEncoder(strength, targetMillis, minStrength, maxStrength, meterRegistry);
+        return new BoundedPasswordEncoder(bcrypt, threads, queueCapacity, maxWait, retryAfter, meterRegistry);
+    }
+
+    /**
+     * Configura el proveedor de autenticación por email y contraseña.
+     *
+     * Es un DaoAuthenticationProvider que, si {@code app.verified-credentials.enabled} está
+     * activo, omite la verificación BCrypt de credenciales verificadas hace poco, y que rechaza
+     * las cuentas no activas sin BCrypt. La latencia objetivo de BCrypt sirve como estimación
+     * inicial de lo que tarda una verificación.
      *
-     * @return instancia de BCryptPasswordEncoder
+     * @param userService servicio que carga los usuarios
+     * @param passwordEncoder codificador de contraseñas de la aplicación
+     * @param verifiedCredentials caché de verificaciones exitosas
+     * @param targetMillis latencia objetivo por hash usada en la calibración
+     * @return proveedor usado por el AuthenticationManager
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AuthenticationProvider authenticationProvider(UserService userService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         VerifiedCredentialCache verifiedCredentials,
+                                                         @Value("${app.hashing.bcrypt.target-ms}") long targetMillis) {
+        return new CachingDaoAuthenticationProvider(userService, passwordEncoder, verifiedCredentials,
+                TimeUnit.MILLISECONDS.toNanos(targetMillis));
     }
 
     /**
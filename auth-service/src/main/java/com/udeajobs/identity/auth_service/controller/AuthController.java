@@ -1,31 +1,52 @@
 package com.udeajobs.identity.auth_service.controller;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.udeajobs.identity.auth_service.dto.AuthResponse;
+import com.udeajobs.identity.auth_service.dto.IntrospectionRequest;
+import com.udeajobs.identity.auth_service.dto.IntrospectionResponse;
 import com.udeajobs.identity.auth_service.dto.LoginRequest;
 import com.udeajobs.identity.auth_service.dto.NewAccessTokenResponse;
 import com.udeajobs.identity.auth_service.dto.RefreshTokenRequest;
+import com.udeajobs.identity.auth_service.dto.SessionResponse;
+import com.udeajobs.identity.auth_service.security.LoginRateLimiter;
 import com.udeajobs.identity.auth_service.service.AuthService;
+import com.udeajobs.identity.auth_service.service.SessionService;
+import com.udeajobs.identity.auth_service.service.TokenIntrospectionService;
+import com.udeajobs.identity.auth_service.util.JwtKeyRing;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Controlador REST para la gestión de autenticación de usuarios.
  *
- * Proporciona endpoints para el login de usuarios y la renovación de tokens de acceso.
+ * Proporciona endpoints para el login de usuarios, la renovación y la introspección de
+ * tokens de acceso, la gestión de sesiones y la publicación de las claves públicas de verificación.
  * Todos los endpoints están bajo la ruta base {@code /api/v1/auth}.
  *
  * @author UdeAJobs Team
@@ -38,6 +59,16 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "Authentication", description = "API para autenticación de usuarios y gestión de tokens JWT")
 public class AuthController {
     private final AuthService authService;
+    private final TokenIntrospectionService tokenIntrospectionService;
+    private final SessionService sessionService;
+    private final JwtKeyRing jwtKeyRing;
+    private final LoginRateLimiter loginRateLimiter;
+
+    /**
+     * Tiempo en segundos que los clientes pueden cachear el JWKS sin revalidarlo.
+     */
+    @Value("${jwt.jwks.max-age}")
+    private long jwksMaxAge;
 
     /**
      * Autentica un usuario con email y contraseña.
@@ -45,7 +76,11 @@ public class AuthController {
      * Valida las credenciales del usuario y genera un access token y un refresh token
      * si la autenticación es exitosa.
      *
+     * Antes de consultar la base de datos se comprueban los límites de frecuencia por email,
+     * por IP y global, y el bloqueo temporal por contraseñas incorrectas.
+     *
      * @param loginRequest objeto con las credenciales del usuario (email y contraseña)
+     * @param request petición HTTP, de la que se obtiene la IP del cliente
      * @return ResponseEntity con el access token, refresh token y tipo de token
      */
     @Operation(
@@ -65,12 +100,18 @@ public class AuthController {
             ),
             @ApiResponse(
                     responseCode = "401",
-                    description = "Credenciales incorrectas",
+                    description = "Credenciales incorrectas, o cuenta pendiente de verificación o desactivada",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Demasiados intentos; reintentar tras los segundos indicados en Retry-After",
                     content = @Content
             )
     })
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> authenticate(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> authenticate(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        loginRateLimiter.checkLogin(loginRequest.email(), request.getRemoteAddr());
         return new ResponseEntity<>(authService.login(loginRequest), HttpStatus.OK);
     }
 
@@ -78,14 +119,18 @@ public class AuthController {
      * Renueva un access token usando un refresh token válido.
      *
      * Valida el refresh token y genera un nuevo access token si el refresh token
-     * es válido y no ha expirado.
+     * es válido y no ha expirado. Con la rotación activa también se emite un refresh
+     * token nuevo y el presentado queda retirado.
      *
      * @param refreshTokenRequest objeto con el refresh token
-     * @return ResponseEntity con el nuevo access token y el mismo refresh token
+     * @return ResponseEntity con el nuevo access token y el refresh token vigente
      */
     @Operation(
             summary = "Renovar access token",
-            description = "Genera un nuevo access token usando un refresh token válido. El refresh token no se renueva."
+            description = "Genera un nuevo access token usando un refresh token válido. Si la rotación de refresh tokens " +
+                    "está activa, la respuesta incluye un refresh token nuevo que sustituye al enviado; volver a usar " +
+                    "el anterior se trata como robo y revoca toda la familia de tokens de esa sesión. " +
+                    "Si la rotación está desactivada, se devuelve el mismo refresh token."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -108,4 +153,146 @@ public class AuthController {
     public ResponseEntity<NewAccessTokenResponse> refreshAccessToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
         return new ResponseEntity<>(authService.refreshAccessToken(refreshTokenRequest), HttpStatus.OK);
     }
+
+    /**
+     * Valida uno o varios access tokens en una sola petición.
+     *
+     * Retorna, para cada token, si está activo o expirado junto con sus claims. Pensado para
+     * gateways y servicios internos que no verifican los tokens localmente.
+     *
+     * @param introspectionRequest objeto con un token individual y/o un lote de tokens
+     * @return ResponseEntity con un resultado por token, en el orden de la solicitud
+     */
+    @Operation(
+            summary = "Introspección de access tokens",
+            description = "Valida uno o varios access tokens (máximo 100 por lote) y retorna sus claims y su estado."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Tokens evaluados; los inválidos se indican en cada resultado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = IntrospectionResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote vacío o demasiado grande",
+                    content = @Content
+            )
+    })
+    @PostMapping("/introspect")
+    public ResponseEntity<IntrospectionResponse> introspect(@Valid @RequestBody IntrospectionRequest introspectionRequest) {
+        List<String> tokens = introspectionRequest.allTokens();
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("At least one token is required");
+        }
+        return new ResponseEntity<>(tokenIntrospectionService.introspect(tokens), HttpStatus.OK);
+    }
+
+    /**
+     * Lista las sesiones activas del usuario autenticado.
+     *
+     * @param authorization cabecera Authorization con el access token ({@code Bearer <token>})
+     * @return ResponseEntity con las sesiones activas, de la más antigua a la más reciente
+     */
+    @Operation(
+            summary = "Listar sesiones activas",
+            description = "Retorna las sesiones (familias de refresh tokens) activas del usuario identificado por el access token."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Sesiones activas",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = SessionResponse.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Access token ausente o inválido",
+                    content = @Content
+            )
+    })
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionResponse>> listSessions(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String userId = sessionService.authenticatedUserId(authorization);
+        return new ResponseEntity<>(sessionService.listSessions(userId), HttpStatus.OK);
+    }
+
+    /**
+     * Revoca una sesión del usuario autenticado.
+     *
+     * @param authorization cabecera Authorization con el access token ({@code Bearer <token>})
+     * @param sessionId identificador de la sesión a revocar
+     * @return ResponseEntity vacío con código 204
+     */
+    @Operation(
+            summary = "Revocar una sesión",
+            description = "Elimina los refresh tokens de la sesión indicada. El access token ya emitido sigue siendo válido hasta su expiración."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sesión revocada", content = @Content),
+            @ApiResponse(responseCode = "400", description = "La sesión no existe o no pertenece al usuario", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Access token ausente o inválido", content = @Content)
+    })
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<Void> revokeSession(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                              @PathVariable String sessionId) {
+        sessionService.revokeSession(sessionService.authenticatedUserId(authorization), sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revoca todas las sesiones del usuario autenticado ("cerrar sesión en todos los dispositivos").
+     *
+     * @param authorization cabecera Authorization con el access token ({@code Bearer <token>})
+     * @return ResponseEntity vacío con código 204
+     */
+    @Operation(
+            summary = "Revocar todas las sesiones",
+            description = "Invalida todos los refresh tokens del usuario en una sola escritura, incrementando su generación de sesiones."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sesiones revocadas", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Access token ausente o inválido", content = @Content)
+    })
+    @PostMapping("/sessions/revoke-all")
+    public ResponseEntity<Void> revokeAllSessions(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        sessionService.revokeAllSessions(sessionService.authenticatedUserId(authorization));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Publica las claves públicas de verificación de los access tokens en formato JWKS.
+     *
+     * Permite a los demás servicios verificar los tokens localmente, sin compartir secretos
+     * ni llamar a este servicio en cada petición. La respuesta lleva ETag y Cache-Control,
+     * y una petición con {@code If-None-Match} vigente recibe un 304 sin cuerpo.
+     *
+     * @return ResponseEntity con el JWKS serializado
+     */
+    @Operation(
+            summary = "Claves públicas de verificación (JWKS)",
+            description = "Retorna las claves públicas con las que se firman los access tokens. Vacío en modo HS256."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "JWKS con las claves activas y en retiro",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "El JWKS no cambió desde el ETag indicado",
+                    content = @Content
+            )
+    })
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<String> jwks() {
+        JwtKeyRing.PublishedJwks jwks = jwtKeyRing.publishedJwks();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwksMaxAge))
+                        .cachePublic()
+                        .staleWhileRevalidate(Duration.ofSeconds(jwksMaxAge)))
+                .eTag(jwks.etag())
+                .body(jwks.json());
+    }
 }
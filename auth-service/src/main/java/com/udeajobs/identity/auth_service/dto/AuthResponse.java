@@ -19,7 +19,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 public record AuthResponse(
         @Schema(description = "Token JWT de acceso", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
         String accessToken,
-        @Schema(description = "Token de actualización", example = "550e8400-e29b-41d4-a716-446655440000")
+        @Schema(description = "Token de actualización", example = "6720f1c2a4b5c6d7e8f90123.fgO5v_zNlSP3v7PVnDfmRKV9K822gsxq4X3xsVs2Uuk")
         String refreshToken,
         @Schema(description = "Tipo de token", example = "Bearer")
         String tokenType
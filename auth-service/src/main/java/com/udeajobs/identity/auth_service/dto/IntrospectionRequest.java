@@ -0,0 +1,44 @@
+package com.udeajobs.identity.auth_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO para la solicitud de introspección de access tokens.
+ *
+ * Admite un único token en {@code token}, un lote en {@code tokens}, o ambos a la vez.
+ *
+ * @param token access token individual a validar
+ * @param tokens lote de access tokens a validar en una sola petición
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Schema(description = "Solicitud de introspección de uno o varios access tokens")
+public record IntrospectionRequest(
+        @Schema(description = "Access token individual", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+        String token,
+        @Schema(description = "Lote de access tokens (máximo 100)")
+        @Size(max = 100, message = "A batch cannot contain more than 100 tokens")
+        List<String> tokens
+) {
+    /**
+     * Retorna todos los tokens de la solicitud en orden: primero el individual y luego el lote.
+     *
+     * @return lista de tokens a validar
+     */
+    public List<String> allTokens() {
+        List<String> all = new ArrayList<>();
+        if (token != null) {
+            all.add(token);
+        }
+        if (tokens != null) {
+            all.addAll(tokens);
+        }
+        return all;
+    }
+}
@@ -0,0 +1,21 @@
+package com.udeajobs.identity.auth_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO para la respuesta de introspección de access tokens.
+ *
+ * @param results resultados en el mismo orden en que se enviaron los tokens
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Schema(description = "Resultados de la introspección, en el orden de la solicitud")
+public record IntrospectionResponse(
+        @Schema(description = "Resultado por token")
+        List<TokenIntrospection> results
+) {
+}
@@ -8,7 +8,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
  * Contiene el nuevo access token generado y el mismo refresh token original.
  *
  * @param accessToken nuevo token JWT de acceso
- * @param refreshToken mismo refresh token original
+ * @param refreshToken refresh token vigente (el original, o uno nuevo si la rotación está activa)
  *
  * @author UdeAJobs Team
  * @version 1.0
@@ -18,7 +18,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 public record NewAccessTokenResponse(
         @Schema(description = "Nuevo token JWT de acceso", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
         String accessToken,
-        @Schema(description = "Mismo refresh token original", example = "550e8400-e29b-41d4-a716-446655440000")
+        @Schema(description = "Refresh token vigente; sustituye al original si la rotación está activa", example = "6720f1c2a4b5c6d7e8f90123.fgO5v_zNlSP3v7PVnDfmRKV9K822gsxq4X3xsVs2Uuk")
         String refreshToken
 ) {
 }
@@ -15,7 +15,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
  */
 @Schema(description = "Solicitud de renovación de access token")
 public record RefreshTokenRequest(
-        @Schema(description = "Refresh token válido", example = "550e8400-e29b-41d4-a716-446655440000", requiredMode = Schema.RequiredMode.REQUIRED)
+        @Schema(description = "Refresh token válido", example = "6720f1c2a4b5c6d7e8f90123.fgO5v_zNlSP3v7PVnDfmRKV9K822gsxq4X3xsVs2Uuk", requiredMode = Schema.RequiredMode.REQUIRED)
         String refreshToken
 ) {
 }
@@ -0,0 +1,33 @@
+package com.udeajobs.identity.auth_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * DTO con la información de una sesión activa del usuario.
+ *
+ * Una sesión corresponde a una familia de refresh tokens: nace en un login y se mantiene
+ * a través de las rotaciones.
+ *
+ * @param sessionId identificador de la sesión (familia de refresh tokens)
+ * @param startedAt fecha del login que inició la sesión
+ * @param lastRefreshedAt fecha de emisión del refresh token vigente
+ * @param expiresAt fecha de expiración del refresh token vigente
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Schema(description = "Sesión activa del usuario")
+public record SessionResponse(
+        @Schema(description = "Identificador de la sesión", example = "6720f1c2a4b5c6d7e8f90123")
+        String sessionId,
+        @Schema(description = "Inicio de la sesión", example = "2025-11-05T14:30:00Z")
+        Instant startedAt,
+        @Schema(description = "Última renovación del refresh token", example = "2025-11-05T15:30:00Z")
+        Instant lastRefreshedAt,
+        @Schema(description = "Expiración del refresh token vigente", example = "2025-11-12T14:30:00Z")
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,56 @@
+package com.udeajobs.identity.auth_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * DTO con el resultado de la introspección de un access token.
+ *
+ * Un token es activo cuando su firma es válida, su clave sigue en el anillo y no ha expirado.
+ * Los tokens expirados con firma válida conservan sus claims para facilitar el diagnóstico.
+ *
+ * @param active true si el token puede aceptarse
+ * @param expired true si la firma es válida pero el token ya expiró
+ * @param subject email del usuario (claim {@code sub})
+ * @param role rol del usuario (claim {@code role})
+ * @param issuedAt fecha de emisión
+ * @param expiresAt fecha de expiración
+ * @param kid identificador de la clave de firma
+ * @param error motivo por el que el token no es válido, o null
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Schema(description = "Resultado de la introspección de un access token")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospection(
+        @Schema(description = "El token es válido y no ha expirado", example = "true")
+        boolean active,
+        @Schema(description = "La firma es válida pero el token expiró", example = "false")
+        boolean expired,
+        @Schema(description = "Email del usuario", example = "usuario@example.com")
+        String subject,
+        @Schema(description = "Rol del usuario", example = "FREELANCER")
+        String role,
+        @Schema(description = "Fecha de emisión", example = "2025-11-05T14:30:00Z")
+        Instant issuedAt,
+        @Schema(description = "Fecha de expiración", example = "2025-11-05T15:30:00Z")
+        Instant expiresAt,
+        @Schema(description = "Identificador de la clave de firma", example = "2025-11")
+        String kid,
+        @Schema(description = "Motivo de rechazo", example = "Invalid signature")
+        String error
+) {
+    /**
+     * Crea un resultado para un token rechazado.
+     *
+     * @param error motivo del rechazo
+     * @return resultado inactivo sin claims
+     */
+    public static TokenIntrospection invalid(String error) {
+        return new TokenIntrospection(false, false, null, null, null, null, null, error);
+    }
+}
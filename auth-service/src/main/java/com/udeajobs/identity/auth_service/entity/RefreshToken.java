@@ -1,8 +1,11 @@
 package com.udeajobs.identity.auth_service.entity;
 
 import lombok.Data;
+import lombok.ToString;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -13,13 +16,28 @@ import java.time.Instant;
  * Los refresh tokens se utilizan para generar nuevos access tokens sin necesidad
  * de volver a autenticarse. Se almacenan en la colección "refresh_tokens" de MongoDB.
  *
+ * El valor entregado al cliente tiene el formato {@code <id>.<secreto>}: el {@code _id} del
+ * documento permite resolverlo por clave primaria y del secreto solo se guarda su hash
+ * SHA-256, de modo que un volcado de la colección no contiene tokens utilizables.
+ *
+ * Índices (creados y verificados al arrancar por {@code MongoIndexInitializer}):
+ * único y disperso sobre {@code token} (solo tokens UUID heredados), TTL sobre
+ * {@code experyDate} para que MongoDB elimine los tokens vencidos, y compuesto sobre el
+ * usuario y su versión de credenciales para las revocaciones.
+ *
  * @author UdeAJobs Team
  * @version 1.0
  * @since 1.0
  */
 @Data
-@Document(collection = "refresh_tokens")
+@Document(collection = RefreshToken.COLLECTION)
+@CompoundIndex(name = "subject_user_version", def = "{'subject.userId': 1, 'subject.credentialsVersion': 1}")
 public class RefreshToken {
+    /**
+     * Nombre de la colección de MongoDB.
+     */
+    public static final String COLLECTION = "refresh_tokens";
+
     /**
      * Identificador único del refresh token.
      */
@@ -27,18 +45,61 @@ public class RefreshToken {
     private String id;
 
     /**
-     * Referencia al usuario propietario del refresh token.
+     * Copia embebida del usuario propietario, suficiente para emitir access tokens
+     * sin consultar la colección de usuarios.
      */
-    @DBRef
-    private User user;
+    private TokenSubject subject;
 
     /**
-     * Token UUID único para identificar el refresh token.
+     * Token UUID en claro de los refresh tokens emitidos antes del formato {@code <id>.<secreto>}.
+     * Los tokens nuevos no lo guardan.
      */
+    @Indexed(name = "token_legacy_unique", unique = true, sparse = true)
     private String token;
 
     /**
-     * Fecha y hora de expiración del refresh token.
+     * Hash SHA-256 (Base64URL) del secreto del token.
+     */
+    private String secretHash;
+
+    /**
+     * Identificador de la familia de rotación: todos los tokens derivados de un mismo login
+     * lo comparten, de modo que una reutilización revoca la familia completa.
+     */
+    @Indexed(name = "familyId", sparse = true)
+    private String familyId;
+
+    /**
+     * Instante en que el token fue sustituido por una rotación; presentarlo de nuevo es una reutilización.
+     */
+    private Instant rotatedAt;
+
+    /**
+     * Instante del login que inició la sesión; se conserva a través de las rotaciones.
+     */
+    private Instant sessionStartedAt;
+
+    /**
+     * Instante de emisión de este token concreto.
+     */
+    private Instant issuedAt;
+
+    /**
+     * Generación de sesiones del usuario al emitir el token; si el usuario cierra todas sus
+     * sesiones, su generación aumenta y este token deja de poder renovarse.
+     */
+    private long sessionGeneration;
+
+    /**
+     * Valor del token tal como lo recibe el cliente; nunca se persiste.
+     */
+    @Transient
+    @ToString.Exclude
+    private String rawToken;
+
+    /**
+     * Fecha y hora de expiración del refresh token; MongoDB elimina el documento al alcanzarla.
      */
+    @Indexed(name = "experyDate_ttl", expireAfter = "0s")
     private Instant experyDate;
 }
@@ -0,0 +1,52 @@
+package com.udeajobs.identity.auth_service.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Copia embebida de los datos del usuario necesarios para emitir un access token.
+ *
+ * Se guarda dentro de cada refresh token para que renovar un access token sea una única
+ * lectura indexada, sin resolver el documento del usuario. La versión de credenciales
+ * permite invalidar los tokens cuando la copia queda obsoleta (p. ej. tras un cambio
+ * de contraseña).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenSubject {
+    /**
+     * Identificador del usuario propietario del token.
+     */
+    private String userId;
+
+    /**
+     * Correo electrónico del usuario (subject del access token).
+     */
+    private String email;
+
+    /**
+     * Rol del usuario en el momento de emitir el refresh token.
+     */
+    private String role;
+
+    /**
+     * Versión de las credenciales del usuario en el momento de emitir el refresh token.
+     */
+    private long credentialsVersion;
+
+    /**
+     * Crea la copia a partir de un usuario cargado.
+     *
+     * @param user usuario autenticado
+     * @return copia con los datos necesarios para emitir access tokens
+     */
+    public static TokenSubject from(User user) {
+        return new TokenSubject(user.getId(), user.getEmail(), user.getRole(), user.getCredentialsVersionOrDefault());
+    }
+}
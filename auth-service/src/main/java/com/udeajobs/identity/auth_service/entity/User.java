@@ -1,5 +1,6 @@
 package com.udeajobs.identity.auth_service.entity;
 
+import com.udeajobs.identity.auth_service.enums.STATUS;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
@@ -51,6 +52,16 @@ public class User implements UserDetails {
      */
     private String role;
 
+    /**
+     * Estado de la cuenta gestionado por account-service.
+     */
+    private STATUS status;
+
+    /**
+     * Versión de las credenciales; account-service la incrementa al cambiar la contraseña.
+     */
+    private Long credentialsVersion;
+
     /**
      * Retorna las autoridades (roles) del usuario para Spring Security.
      *
@@ -65,6 +76,37 @@ public class User implements UserDetails {
         return Collections.singletonList(authority);
     }
 
+    /**
+     * Retorna la versión de credenciales, tratando los usuarios anteriores a su introducción como versión 0.
+     *
+     * @return versión de las credenciales del usuario
+     */
+    public long getCredentialsVersionOrDefault() {
+        return this.credentialsVersion == null ? 0L : this.credentialsVersion;
+    }
+
+    /**
+     * Indica si la cuenta completó la verificación por email.
+     *
+     * Los usuarios sin estado (anteriores a su introducción) se consideran habilitados.
+     *
+     * @return false si la cuenta está pendiente de verificación
+     */
+    @Override
+    public boolean isEnabled() {
+        return this.status != STATUS.PENDING_VERIFICATION;
+    }
+
+    /**
+     * Indica si la cuenta no ha sido desactivada o suspendida.
+     *
+     * @return false si la cuenta está inactiva
+     */
+    @Override
+    public boolean isAccountNonLocked() {
+        return this.status != STATUS.INACTIVE;
+    }
+
     /**
      * Retorna el username usado para autenticación (en este caso, el email).
      *
@@ -0,0 +1,42 @@
+package com.udeajobs.identity.auth_service.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Contador de generación de sesiones de un usuario.
+ *
+ * Cada refresh token guarda la generación vigente al emitirse; "cerrar todas las sesiones"
+ * solo incrementa este contador, y los tokens de generaciones anteriores se rechazan al
+ * intentar renovarlos. Así la revocación cuesta una escritura, sin importar cuántos tokens
+ * tenga el usuario. Se almacena en la colección "user_sessions" de MongoDB.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "user_sessions")
+public class UserSessions {
+    /**
+     * Identificador del usuario (clave primaria).
+     */
+    @Id
+    private String userId;
+
+    /**
+     * Generación vigente; los refresh tokens con una generación menor están revocados.
+     */
+    private long generation;
+
+    /**
+     * Instante del último "cerrar todas las sesiones"; las sesiones iniciadas después siguen
+     * vigentes aunque se emitieran con una generación cacheada anterior.
+     */
+    private Instant revokedAt;
+}
@@ -0,0 +1,24 @@
+package com.udeajobs.identity.auth_service.enums;
+
+/**
+ * Enumeración que define los posibles estados de un usuario en el sistema.
+ *
+ * Refleja los valores que account-service escribe en el campo {@code status} de la
+ * colección {@code user}; auth-service solo los lee para decidir si una cuenta puede
+ * iniciar sesión.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public enum STATUS {
+
+    /** Usuario registrado pero pendiente de verificación por email */
+    PENDING_VERIFICATION,
+
+    /** Usuario verificado y activo en el sistema */
+    ACTIVE,
+
+    /** Usuario desactivado o suspendido */
+    INACTIVE
+}
@@ -0,0 +1,22 @@
+package com.udeajobs.identity.auth_service.events;
+
+/**
+ * Evento publicado por account-service cuando cambian las credenciales de un usuario.
+ *
+ * Se recibe a través de RabbitMQ y provoca la revocación de los refresh tokens cuya
+ * copia embebida del usuario tiene una versión de credenciales anterior.
+ *
+ * @param accountId identificador único de la cuenta
+ * @param email dirección de correo electrónico del usuario
+ * @param credentialsVersion nueva versión de las credenciales
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public record CredencialesActualizadasEvent(
+        String accountId,
+        String email,
+        long credentialsVersion
+) {
+}
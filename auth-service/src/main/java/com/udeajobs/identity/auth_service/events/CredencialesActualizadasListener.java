@@ -0,0 +1,53 @@
+package com.udeajobs.identity.auth_service.events;
+
+import com.udeajobs.identity.auth_service.config.RabbitMQConfig;
+import com.udeajobs.identity.auth_service.security.VerifiedCredentialCache;
+import com.udeajobs.identity.auth_service.service.RefreshTokenService;
+import com.udeajobs.identity.auth_service.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumidor de los eventos de cambio de credenciales publicados por account-service.
+ *
+ * La revocación de refresh tokens se hace una sola vez desde la cola durable compartida;
+ * la invalidación de cachés locales se hace en cada instancia desde su cola anónima.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CredencialesActualizadasListener {
+
+    private final RefreshTokenService refreshTokenService;
+    private final UserService userService;
+    private final VerifiedCredentialCache verifiedCredentials;
+
+    /**
+     * Descarta las credenciales y verificaciones en caché del usuario en esta instancia.
+     *
+     * @param event evento con el usuario y su nueva versión de credenciales
+     */
+    @RabbitListener(queues = "#{credentialsChangedCacheQueue.name}")
+    public void evictCachedCredentials(CredencialesActualizadasEvent event) {
+        userService.evict(event.email());
+        verifiedCredentials.evict(event.email());
+        log.debug("Credenciales en caché descartadas para la cuenta {}", event.accountId());
+    }
+
+    /**
+     * Revoca los refresh tokens emitidos antes del cambio de credenciales.
+     *
+     * @param event evento con el usuario y su nueva versión de credenciales
+     */
+    @RabbitListener(queues = RabbitMQConfig.CREDENTIALS_CHANGED_QUEUE)
+    public void onCredentialsChanged(CredencialesActualizadasEvent event) {
+        long revoked = refreshTokenService.revokeStaleTokens(event.accountId(), event.credentialsVersion());
+        log.info("Credenciales actualizadas para la cuenta {}: {} refresh tokens revocados", event.accountId(), revoked);
+    }
+}
@@ -0,0 +1,19 @@
+package com.udeajobs.identity.auth_service.events;
+
+/**
+ * Evento publicado por account-service cuando se registra una cuenta nueva.
+ *
+ * Se recibe a través de RabbitMQ para añadir el email al filtro de emails registrados.
+ *
+ * @param accountId identificador único de la cuenta registrada
+ * @param email dirección de correo electrónico del usuario registrado
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public record CuentaRegistradaEvent(
+        String accountId,
+        String email
+) {
+}
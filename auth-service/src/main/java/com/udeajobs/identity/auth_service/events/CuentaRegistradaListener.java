@@ -0,0 +1,36 @@
+package com.udeajobs.identity.auth_service.events;
+
+import com.udeajobs.identity.auth_service.service.RegisteredEmailFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumidor de los eventos de cuenta registrada publicados por account-service.
+ *
+ * Escucha en la cola anónima de esta instancia para que el filtro de todas las réplicas
+ * incluya el email nuevo.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CuentaRegistradaListener {
+
+    private final RegisteredEmailFilter emailFilter;
+
+    /**
+     * Añade el email de la cuenta nueva al filtro de emails registrados.
+     *
+     * @param event evento con la cuenta registrada
+     */
+    @RabbitListener(queues = "#{userRegisteredQueue.name}")
+    public void onAccountRegistered(CuentaRegistradaEvent event) {
+        emailFilter.add(event.email());
+        log.debug("Cuenta {} registrada: email añadido al filtro", event.accountId());
+    }
+}
@@ -0,0 +1,22 @@
+package com.udeajobs.identity.auth_service.events;
+
+/**
+ * Evento publicado por account-service cuando una cuenta de usuario ha sido verificada.
+ *
+ * Se recibe a través de RabbitMQ; el estado del usuario pasa a ACTIVE, por lo que su
+ * registro de credenciales en caché deja de ser válido.
+ *
+ * @param accountId identificador único de la cuenta verificada
+ * @param fullName nombre completo del usuario verificado
+ * @param email dirección de correo electrónico del usuario verificado
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public record CuentaVerificadaEvent(
+        String accountId,
+        String fullName,
+        String email
+) {
+}
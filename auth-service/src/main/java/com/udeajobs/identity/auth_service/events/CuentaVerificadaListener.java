@@ -0,0 +1,39 @@
+package com.udeajobs.identity.auth_service.events;
+
+import com.udeajobs.identity.auth_service.service.RegisteredEmailFilter;
+import com.udeajobs.identity.auth_service.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumidor de los eventos de cuenta verificada publicados por account-service.
+ *
+ * Escucha en la cola anónima de esta instancia para que todas las réplicas actualicen sus cachés.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CuentaVerificadaListener {
+
+    private final UserService userService;
+    private final RegisteredEmailFilter emailFilter;
+
+    /**
+     * Descarta las credenciales en caché del usuario, cuyo estado acaba de cambiar, y
+     * asegura que su email figure en el filtro de emails registrados.
+     *
+     * @param event evento con el usuario verificado
+     */
+    @RabbitListener(queues = "#{userVerifiedQueue.name}")
+    public void onAccountVerified(CuentaVerificadaEvent event) {
+        userService.evict(event.email());
+        emailFilter.add(event.email());
+        log.info("Cuenta {} verificada: credenciales en caché descartadas", event.accountId());
+    }
+}
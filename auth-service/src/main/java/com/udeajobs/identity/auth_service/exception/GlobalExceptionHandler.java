@@ -1,7 +1,9 @@
 package com.udeajobs.identity.auth_service.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
@@ -29,6 +31,9 @@ public class GlobalExceptionHandler {
     /**
      * Maneja excepciones de credenciales incorrectas.
      *
+     * Las cuentas pendientes de verificación o desactivadas reciben la misma respuesta,
+     * para no revelar su existencia ni su estado.
+     *
      * @param ex excepción de credenciales incorrectas
      * @return ResponseEntity con mensaje de error y código 401
      */
@@ -42,6 +47,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Maneja peticiones sin un access token válido en la cabecera Authorization.
+     *
+     * @param ex excepción de credenciales ausentes
+     * @return ResponseEntity con mensaje de error y código 401
+     */
+    @ExceptionHandler(AuthenticationCredentialsNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleMissingAccessToken(AuthenticationCredentialsNotFoundException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.UNAUTHORIZED.value(),
+                "Access token ausente o inválido.",
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+    }
+
     /**
      * Maneja excepciones de usuario no encontrado.
      *
@@ -58,6 +79,42 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
     }
 
+    /**
+     * Maneja la saturación del pool de hashing de contraseñas.
+     *
+     * @param ex excepción de capacidad de hashing excedida
+     * @return ResponseEntity con mensaje de error, cabecera Retry-After y código 503
+     */
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleHashingCapacityExceeded(HashingCapacityExceededException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "El servicio está procesando demasiadas solicitudes. Por favor, intenta nuevamente en unos segundos.",
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * Maneja los intentos que superan un límite de frecuencia o un bloqueo temporal.
+     *
+     * @param ex excepción de límite de frecuencia excedido
+     * @return ResponseEntity con mensaje de error, cabecera Retry-After y código 429
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex) {
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Demasiados intentos. Por favor, intenta nuevamente más tarde.",
+                LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     /**
      * Maneja excepciones de validación de datos de entrada.
      *
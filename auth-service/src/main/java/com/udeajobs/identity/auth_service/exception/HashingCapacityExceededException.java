@@ -0,0 +1,32 @@
+package com.udeajobs.identity.auth_service.exception;
+
+import lombok.Getter;
+
+/**
+ * Excepción lanzada cuando el pool de hashing de contraseñas está saturado.
+ *
+ * Se traduce en una respuesta 503 con la cabecera Retry-After, para que los clientes
+ * reintenten más tarde en lugar de acumular peticiones que consumen CPU.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+public class HashingCapacityExceededException extends RuntimeException {
+
+    /**
+     * Segundos que el cliente debería esperar antes de reintentar.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Crea la excepción con el tiempo de espera sugerido.
+     *
+     * @param retryAfterSeconds segundos antes de reintentar
+     */
+    public HashingCapacityExceededException(long retryAfterSeconds) {
+        super("Password hashing capacity exceeded, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
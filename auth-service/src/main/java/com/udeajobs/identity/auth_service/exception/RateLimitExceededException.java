@@ -0,0 +1,32 @@
+package com.udeajobs.identity.auth_service.exception;
+
+import lombok.Getter;
+
+/**
+ * Excepción lanzada cuando una petición supera un límite de frecuencia o la cuenta
+ * está bloqueada temporalmente por intentos fallidos.
+ *
+ * Se traduce en una respuesta 429 con la cabecera Retry-After.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * Segundos que el cliente debería esperar antes de reintentar.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Crea la excepción con el tiempo de espera sugerido.
+     *
+     * @param retryAfterSeconds segundos antes de reintentar
+     */
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests, please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
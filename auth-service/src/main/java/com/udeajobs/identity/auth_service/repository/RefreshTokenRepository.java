@@ -16,10 +16,29 @@ import java.util.Optional;
  */
 public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
     /**
-     * Busca un refresh token por su valor de token.
+     * Busca un refresh token heredado por su valor UUID en claro.
+     *
+     * Los tokens con formato {@code <id>.<secreto>} se resuelven con {@code findById}.
      *
      * @param token valor UUID del refresh token
      * @return Optional con el refresh token si se encuentra, Optional vacío si no existe
      */
     Optional<RefreshToken> findByToken(String token);
+
+    /**
+     * Elimina los refresh tokens de un usuario emitidos con una versión de credenciales anterior.
+     *
+     * @param userId identificador del usuario
+     * @param credentialsVersion versión de credenciales vigente
+     * @return número de tokens eliminados
+     */
+    long deleteBySubjectUserIdAndSubjectCredentialsVersionLessThan(String userId, long credentialsVersion);
+
+    /**
+     * Elimina todos los refresh tokens de una familia de rotación.
+     *
+     * @param familyId identificador de la familia
+     * @return número de tokens eliminados
+     */
+    long deleteByFamilyId(String familyId);
 }
@@ -0,0 +1,157 @@
+package com.udeajobs.identity.auth_service.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Codificador BCrypt que elige su factor de costo midiendo el hardware al arrancar.
+ *
+ * En lugar de usar la fuerza por defecto, mide cuánto tarda un hash en esta máquina y
+ * escoge el mayor costo cuyo tiempo no supera {@code targetMillis}, sin bajar nunca de
+ * {@code minStrength}. {@link #upgradeEncoding(String)} devuelve true solo para los hashes
+ * con un costo menor que el calibrado, de modo que los hashes almacenados suben al costo
+ * actual al volver a iniciar sesión. Nunca se rebajan: cada servicio y cada réplica calibra
+ * por su cuenta, y en hardware mixto rebajar haría que dos instancias se alternasen
+ * recalculando el mismo hash. Para un costo idéntico en todas, se fija {@code BCRYPT_STRENGTH}.
+ *
+ * Métricas exportadas: {@code password.hashing.bcrypt.cost} y
+ * {@code password.hashing.bcrypt.calibrated.time} (milisegundos medidos para el costo elegido).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+    private static final int MIN_BCRYPT_STRENGTH = 4;
+    private static final int MAX_BCRYPT_STRENGTH = 31;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    /**
+     * Factor de costo elegido para los nuevos hashes.
+     */
+    @Getter
+    private final int strength;
+
+    /**
+     * Tiempo medido en milisegundos para un hash con el costo elegido.
+     */
+    @Getter
+    private final long calibratedMillis;
+
+    private final BCryptPasswordEncoder delegate;
+
+    /**
+     * Crea el codificador calibrando el costo contra la latencia objetivo.
+     *
+     * @param fixedStrength costo fijo; 0 o menos activa la calibración
+     * @param targetMillis latencia objetivo por hash en milisegundos
+     * @param minStrength costo mínimo aceptado aunque supere la latencia objetivo
+     * @param maxStrength costo máximo que puede elegir la calibración
+     * @param meterRegistry registro de métricas de Micrometer
+     */
+    public AdaptiveBCryptPasswordEncoder(int fixedStrength, long targetMillis, int minStrength, int maxStrength,
+                                         MeterRegistry meterRegistry) {
+        if (minStrength < MIN_BCRYPT_STRENGTH || maxStrength > MAX_BCRYPT_STRENGTH || minStrength > maxStrength) {
+            throw new IllegalArgumentException("Invalid BCrypt strength range: " + minStrength + ".." + maxStrength);
+        }
+        if (fixedStrength > 0) {
+            this.strength = Math.max(fixedStrength, minStrength);
+            this.calibratedMillis = measure(strength);
+            log.info("Costo BCrypt fijado por configuración en {} ({} ms por hash)", strength, calibratedMillis);
+        } else {
+            Calibration calibration = calibrate(targetMillis, minStrength, maxStrength);
+            this.strength = calibration.strength();
+            this.calibratedMillis = calibration.millis();
+            log.info("Costo BCrypt calibrado en {} ({} ms por hash, objetivo {} ms)", strength, calibratedMillis, targetMillis);
+        }
+        this.delegate = new BCryptPasswordEncoder(strength);
+
+        Gauge.builder("password.hashing.bcrypt.cost", this, AdaptiveBCryptPasswordEncoder::getStrength)
+                .description("Factor de costo BCrypt usado para nuevos hashes")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.bcrypt.calibrated.time", this, AdaptiveBCryptPasswordEncoder::getCalibratedMillis)
+                .description("Milisegundos medidos por hash con el costo calibrado")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * Indica si un hash almacenado usa un costo menor que el calibrado.
+     *
+     * @param encodedPassword hash almacenado
+     * @return true si el hash debe recalcularse con el costo actual
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = strengthOf(encodedPassword);
+        return cost > 0 && cost < strength;
+    }
+
+    /**
+     * Extrae el factor de costo de un hash BCrypt.
+     *
+     * @param encodedPassword hash almacenado
+     * @return costo del hash, o -1 si no es un hash BCrypt válido
+     */
+    public static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    private static Calibration calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // Calentamiento del JIT para no medir código interpretado
+        for (int i = 0; i < 3; i++) {
+            measure(MIN_BCRYPT_STRENGTH);
+        }
+        int cost = minStrength;
+        long elapsed = measure(cost);
+        // Cada punto de costo duplica el trabajo: se sube mientras el siguiente quepa en el objetivo
+        while (cost < maxStrength && elapsed * 2 <= targetMillis) {
+            long next = measure(cost + 1);
+            if (next > targetMillis) {
+                break;
+            }
+            cost++;
+            elapsed = next;
+        }
+        return new Calibration(cost, elapsed);
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(best);
+    }
+
+    private record Calibration(int strength, long millis) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.udeajobs.identity.auth_service.security;
+
+import com.udeajobs.identity.auth_service.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Codificador de contraseñas que ejecuta el hashing en un pool acotado de hilos.
+ *
+ * BCrypt consume CPU de forma intensiva; ejecutarlo directamente en los hilos de Tomcat
+ * permite que una ráfaga de logins sature todos los núcleos y deje sin servicio a los
+ * endpoints baratos (health checks, refresh). Este decorador limita el hashing concurrente
+ * al número de núcleos, encola como máximo {@code queueCapacity} operaciones y, cuando el
+ * pool está saturado o la espera supera {@code maxWait}, falla de inmediato con
+ * {@link HashingCapacityExceededException} (503 + Retry-After).
+ *
+ * Métricas exportadas: {@code password.hashing.queue.time}, {@code password.hashing.execution.time},
+ * {@code password.hashing.rejected}, {@code password.hashing.queue.size} y {@code password.hashing.active}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+    private final Timer queueTime;
+    private final Timer encodeTime;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    /**
+     * Crea el codificador y su pool de hilos.
+     *
+     * @param delegate codificador real (BCrypt)
+     * @param threads hilos de hashing; 0 o menos usa el número de núcleos disponibles
+     * @param queueCapacity operaciones que pueden esperar en cola
+     * @param maxWaitMs tiempo máximo en milisegundos que una petición espera su turno
+     * @param retryAfterSeconds valor de la cabecera Retry-After cuando se rechaza una petición
+     * @param meterRegistry registro de métricas de Micrometer
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long maxWaitMs, long retryAfterSeconds, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.delegate = delegate;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueTime = Timer.builder("password.hashing.queue.time")
+                .description("Tiempo que una operación de hashing espera en cola")
+                .register(meterRegistry);
+        this.encodeTime = Timer.builder("password.hashing.execution.time")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTime = Timer.builder("password.hashing.execution.time")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Operaciones de hashing rechazadas por saturación")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Codifica una contraseña en el pool de hashing.
+     *
+     * @param rawPassword contraseña en texto plano
+     * @return hash de la contraseña
+     * @throws HashingCapacityExceededException si el pool está saturado
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTime.record(() -> delegate.encode(rawPassword)));
+    }
+
+    /**
+     * Compara una contraseña con su hash en el pool de hashing.
+     *
+     * @param rawPassword contraseña en texto plano
+     * @param encodedPassword hash almacenado
+     * @return true si la contraseña corresponde al hash
+     * @throws HashingCapacityExceededException si el pool está saturado
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTime.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Delega en el codificador real; no consume CPU de hashing.
+     *
+     * @param encodedPassword hash almacenado
+     * @return true si el hash debe recalcularse
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Detiene el pool de hashing al cerrar el contexto de Spring.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> operation) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTime.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return operation.call();
+            });
+        } catch (RejectedExecutionException e) {
+            throw reject();
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Si aún no empezó se descarta; si ya empezó termina en segundo plano
+            future.cancel(false);
+            throw reject();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw reject();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private HashingCapacityExceededException reject() {
+        rejected.increment();
+        return new HashingCapacityExceededException(retryAfterSeconds);
+    }
+}
@@ -0,0 +1,80 @@
+package com.udeajobs.identity.auth_service.security;
+
+import com.udeajobs.identity.auth_service.util.AverageLatency;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} que consulta la {@link VerifiedCredentialCache} antes
+ * de verificar la contraseña con BCrypt.
+ *
+ * Si las mismas credenciales se verificaron hace poco contra el mismo hash almacenado,
+ * se omite la verificación; si no, se verifica como siempre y el éxito se recuerda.
+ *
+ * Las cuentas que no están activas (pendientes de verificación o desactivadas) se rechazan
+ * antes de BCrypt, para que las cuentas nunca verificadas no consuman CPU de hashing. Para no
+ * revelar que la cuenta existe ni su estado, el rechazo es el mismo {@link BadCredentialsException}
+ * que el de una contraseña incorrecta y el hilo se aparca hasta la latencia media medida de las
+ * verificaciones reales, sin gastar CPU.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public class CachingDaoAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final VerifiedCredentialCache verifiedCredentials;
+    private final AverageLatency verifyLatency;
+
+    /**
+     * Crea el proveedor.
+     *
+     * @param userDetailsService servicio que carga los usuarios
+     * @param passwordEncoder codificador de contraseñas de la aplicación
+     * @param verifiedCredentials caché de verificaciones exitosas
+     * @param initialVerifyNanos latencia inicial estimada de una verificación, hasta que haya mediciones reales
+     */
+    public CachingDaoAuthenticationProvider(UserDetailsService userDetailsService,
+                                            PasswordEncoder passwordEncoder,
+                                            VerifiedCredentialCache verifiedCredentials,
+                                            long initialVerifyNanos) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        setPreAuthenticationChecks(this::rejectInactiveAccounts);
+        this.verifiedCredentials = verifiedCredentials;
+        this.verifyLatency = new AverageLatency(initialVerifyNanos);
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        if (authentication.getCredentials() == null) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        String rawPassword = authentication.getCredentials().toString();
+        if (userDetails.getPassword() != null
+                && verifiedCredentials.isVerified(userDetails.getUsername(), rawPassword, userDetails.getPassword())) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+        } finally {
+            verifyLatency.record(System.nanoTime() - start);
+        }
+        verifiedCredentials.remember(userDetails.getUsername(), rawPassword, userDetails.getPassword());
+    }
+
+    private void rejectInactiveAccounts(UserDetails userDetails) {
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked() || !userDetails.isAccountNonExpired()) {
+            verifyLatency.awaitSince(System.nanoTime());
+            throw new BadCredentialsException("Bad credentials");
+        }
+    }
+}
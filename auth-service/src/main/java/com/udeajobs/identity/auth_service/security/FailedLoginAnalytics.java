@@ -0,0 +1,240 @@
+package com.udeajobs.identity.auth_service.security;
+
+import com.udeajobs.identity.auth_service.util.CountMinSketch;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.SecureRandom;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Analítica en tiempo real de los logins fallidos por email, IP de cliente y user agent.
+ *
+ * Cada dimensión mantiene una ventana deslizante de {@code slots} count-min sketches, uno
+ * por cada {@code slot-duration} milisegundos, y una lista acotada de candidatos a heavy
+ * hitter cuya frecuencia en la ventana se estima sumando los sketches. La memoria es
+ * constante: no depende del número de emails o IPs distintos que se observen. Los fallos se
+ * conocen por el evento de credenciales incorrectas de Spring Security, y la IP y el user
+ * agent se leen de la petición en curso.
+ *
+ * Los resultados se exponen en el endpoint de actuator {@code failedlogins} y en Prometheus
+ * como {@code auth.failed.logins.window.total} y {@code auth.failed.logins.top.count}
+ * (etiquetas {@code dimension} y {@code rank}; las claves no se exportan como etiquetas
+ * para no disparar la cardinalidad).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class FailedLoginAnalytics {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final int slots;
+    private final long slotDuration;
+    private final int topK;
+    private final Map<String, Dimension> dimensions = new LinkedHashMap<>();
+    private final AtomicLongArray slotTotals;
+    private volatile int current;
+
+    /**
+     * Crea la analítica y registra sus métricas.
+     *
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param slots número de intervalos que forman la ventana deslizante
+     * @param slotDuration duración de cada intervalo en milisegundos
+     * @param width contadores por fila de cada sketch
+     * @param depth filas de cada sketch
+     * @param topK heavy hitters reportados por dimensión
+     */
+    public FailedLoginAnalytics(MeterRegistry meterRegistry,
+                                @Value("${app.failed-logins.slots}") int slots,
+                                @Value("${app.failed-logins.slot-duration}") long slotDuration,
+                                @Value("${app.failed-logins.width}") int width,
+                                @Value("${app.failed-logins.depth}") int depth,
+                                @Value("${app.failed-logins.top-k}") int topK) {
+        this.slots = slots;
+        this.slotDuration = slotDuration;
+        this.topK = topK;
+        this.slotTotals = new AtomicLongArray(slots);
+        SecureRandom random = new SecureRandom();
+        for (String name : List.of("email", "ip", "user-agent")) {
+            Dimension dimension = new Dimension(slots, width, depth, random.nextLong(), topK * 2);
+            dimensions.put(name, dimension);
+            for (int rank = 1; rank <= topK; rank++) {
+                int index = rank - 1;
+                Gauge.builder("auth.failed.logins.top.count", dimension, d -> {
+                            List<HeavyHitter> top = d.top(topK);
+                            return index < top.size() ? top.get(index).count() : 0;
+                        })
+                        .tag("dimension", name)
+                        .tag("rank", String.valueOf(rank))
+                        .register(meterRegistry);
+            }
+        }
+        Gauge.builder("auth.failed.logins.window.total", this, FailedLoginAnalytics::windowTotal)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra un login fallido por contraseña incorrecta.
+     *
+     * @param event evento de credenciales incorrectas
+     */
+    @EventListener
+    public void onBadCredentials(AuthenticationFailureBadCredentialsEvent event) {
+        String ip = UNKNOWN;
+        String userAgent = UNKNOWN;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            ip = request.getRemoteAddr();
+            String header = request.getHeader(HttpHeaders.USER_AGENT);
+            userAgent = header == null || header.isBlank() ? UNKNOWN : header;
+        }
+        record(event.getAuthentication().getName(), ip, userAgent);
+    }
+
+    /**
+     * Registra un login fallido.
+     *
+     * @param email email del intento
+     * @param ip IP del cliente
+     * @param userAgent user agent del cliente
+     */
+    public void record(String email, String ip, String userAgent) {
+        int slot = current;
+        slotTotals.incrementAndGet(slot);
+        dimensions.get("email").record(slot, email == null ? UNKNOWN : email.toLowerCase(Locale.ROOT));
+        dimensions.get("ip").record(slot, ip);
+        dimensions.get("user-agent").record(slot, userAgent);
+    }
+
+    /**
+     * Desplaza la ventana un intervalo, descartando el más antiguo.
+     */
+    @Scheduled(fixedRateString = "${app.failed-logins.slot-duration}", initialDelayString = "${app.failed-logins.slot-duration}")
+    public synchronized void rotate() {
+        int next = (current + 1) % slots;
+        slotTotals.set(next, 0);
+        dimensions.values().forEach(dimension -> dimension.clear(next));
+        current = next;
+        dimensions.values().forEach(Dimension::refresh);
+    }
+
+    /**
+     * Retorna los heavy hitters de cada dimensión en la ventana actual.
+     *
+     * @return mapa de dimensión a sus claves más frecuentes, de mayor a menor
+     */
+    public Map<String, List<HeavyHitter>> topHitters() {
+        Map<String, List<HeavyHitter>> result = new LinkedHashMap<>();
+        dimensions.forEach((name, dimension) -> result.put(name, dimension.top(topK)));
+        return result;
+    }
+
+    /**
+     * Retorna el número de logins fallidos en la ventana actual.
+     *
+     * @return fallos registrados en la ventana
+     */
+    public long windowTotal() {
+        long total = 0;
+        for (int i = 0; i < slots; i++) {
+            total += slotTotals.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Retorna la duración de la ventana deslizante.
+     *
+     * @return milisegundos cubiertos por la ventana
+     */
+    public long windowMillis() {
+        return slots * slotDuration;
+    }
+
+    /**
+     * Clave frecuente y su número estimado de fallos en la ventana.
+     *
+     * @param key email, IP o user agent
+     * @param count fallos estimados (cota superior)
+     */
+    public record HeavyHitter(String key, long count) {
+    }
+
+    private static final class Dimension {
+
+        private final CountMinSketch[] sketches;
+        private final int capacity;
+        private final Map<String, Long> candidates = new HashMap<>();
+
+        Dimension(int slots, int width, int depth, long seed, int capacity) {
+            this.sketches = new CountMinSketch[slots];
+            for (int i = 0; i < slots; i++) {
+                sketches[i] = new CountMinSketch(width, depth, seed);
+            }
+            this.capacity = capacity;
+        }
+
+        void record(int slot, String key) {
+            sketches[slot].increment(key);
+            offer(key, estimate(key));
+        }
+
+        void clear(int slot) {
+            sketches[slot].clear();
+        }
+
+        synchronized void refresh() {
+            candidates.replaceAll((key, count) -> estimate(key));
+            candidates.values().removeIf(count -> count == 0);
+        }
+
+        synchronized List<HeavyHitter> top(int limit) {
+            return candidates.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(limit)
+                    .map(entry -> new HeavyHitter(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+
+        private long estimate(String key) {
+            long total = 0;
+            for (CountMinSketch sketch : sketches) {
+                total += sketch.estimate(key);
+            }
+            return total;
+        }
+
+        private synchronized void offer(String key, long count) {
+            if (candidates.containsKey(key) || candidates.size() < capacity) {
+                candidates.put(key, count);
+                return;
+            }
+            Map.Entry<String, Long> weakest = candidates.entrySet().stream()
+                    .min(Comparator.comparingLong(Map.Entry::getValue))
+                    .orElseThrow();
+            if (count > weakest.getValue()) {
+                candidates.remove(weakest.getKey());
+                candidates.put(key, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.udeajobs.identity.auth_service.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint de actuator ({@code /actuator/failedlogins}) con los heavy hitters de logins fallidos.
+ *
+ * Se publica en el puerto de gestión, no en el de la API.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+@Endpoint(id = "failedlogins")
+@RequiredArgsConstructor
+public class FailedLoginsEndpoint {
+
+    private final FailedLoginAnalytics failedLoginAnalytics;
+
+    /**
+     * Retorna el total de fallos y las claves más frecuentes de la ventana actual.
+     *
+     * @return mapa con {@code windowMillis}, {@code total} y {@code top} por dimensión
+     */
+    @ReadOperation
+    public Map<String, Object> failedLogins() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("windowMillis", failedLoginAnalytics.windowMillis());
+        report.put("total", failedLoginAnalytics.windowTotal());
+        report.put("top", failedLoginAnalytics.topHitters());
+        return report;
+    }
+}
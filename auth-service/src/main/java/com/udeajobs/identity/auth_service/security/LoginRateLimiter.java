@@ -0,0 +1,116 @@
+package com.udeajobs.identity.auth_service.security;
+
+import com.udeajobs.identity.auth_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limitador de frecuencia y bloqueo temporal del endpoint de login.
+ *
+ * Se consulta antes de cualquier acceso a MongoDB o cálculo de BCrypt y aplica, en orden:
+ * <ul>
+ *   <li>Bloqueo por email: tras {@code lockout.max-failures} contraseñas incorrectas el email
+ *       solo recupera un intento cada {@code lockout.duration / max-failures} milisegundos;
+ *       un login correcto lo desbloquea.</li>
+ *   <li>Token bucket por email, por IP de cliente y global, con los permisos por minuto
+ *       configurados en {@code app.rate-limit.login}.</li>
+ * </ul>
+ * Los fallos y éxitos se conocen a través de los eventos de autenticación que publica
+ * Spring Security. Los emails se comparan sin distinguir mayúsculas.
+ *
+ * Métrica exportada: {@code rate.limit.rejected} con las etiquetas {@code endpoint} y
+ * {@code scope} (lockout, email, ip, global).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final String GLOBAL_KEY = "*";
+
+    private final MeterRegistry meterRegistry;
+    private final TokenBucketLimiter lockouts;
+    private final TokenBucketLimiter perEmail;
+    private final TokenBucketLimiter perIp;
+    private final TokenBucketLimiter global;
+
+    /**
+     * Crea el limitador con los límites configurados.
+     *
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param emailPerMinute intentos por minuto para un mismo email
+     * @param ipPerMinute intentos por minuto desde una misma IP
+     * @param globalPerMinute intentos por minuto en total
+     * @param maxFailures contraseñas incorrectas antes del bloqueo
+     * @param lockoutDuration milisegundos en los que se recuperan todos los intentos tras un bloqueo
+     * @param maxKeys claves máximas en memoria por tipo de límite
+     */
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${app.rate-limit.login.email}") long emailPerMinute,
+                            @Value("${app.rate-limit.login.ip}") long ipPerMinute,
+                            @Value("${app.rate-limit.login.global}") long globalPerMinute,
+                            @Value("${app.rate-limit.lockout.max-failures}") long maxFailures,
+                            @Value("${app.rate-limit.lockout.duration}") long lockoutDuration,
+                            @Value("${app.rate-limit.max-keys}") long maxKeys) {
+        this.meterRegistry = meterRegistry;
+        this.lockouts = new TokenBucketLimiter(maxFailures, Duration.ofMillis(lockoutDuration), maxKeys);
+        this.perEmail = new TokenBucketLimiter(emailPerMinute, Duration.ofMinutes(1), maxKeys);
+        this.perIp = new TokenBucketLimiter(ipPerMinute, Duration.ofMinutes(1), maxKeys);
+        this.global = new TokenBucketLimiter(globalPerMinute, Duration.ofMinutes(1), 1);
+    }
+
+    /**
+     * Comprueba los límites de un intento de login.
+     *
+     * @param email email del intento
+     * @param clientIp IP del cliente
+     * @throws RateLimitExceededException si algún límite está agotado o el email está bloqueado
+     */
+    public void checkLogin(String email, String clientIp) {
+        String key = normalize(email);
+        check("lockout", lockouts.peek(key));
+        check("email", perEmail.tryAcquire(key));
+        check("ip", perIp.tryAcquire(clientIp));
+        check("global", global.tryAcquire(GLOBAL_KEY));
+    }
+
+    /**
+     * Descuenta un intento del bloqueo del email cuando la contraseña es incorrecta.
+     *
+     * @param event evento de credenciales incorrectas
+     */
+    @EventListener
+    public void onBadCredentials(AuthenticationFailureBadCredentialsEvent event) {
+        lockouts.consume(normalize(event.getAuthentication().getName()));
+    }
+
+    /**
+     * Desbloquea el email tras un login correcto.
+     *
+     * @param event evento de autenticación exitosa
+     */
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        lockouts.reset(normalize(event.getAuthentication().getName()));
+    }
+
+    private void check(String scope, long retryAfterSeconds) {
+        if (retryAfterSeconds > 0) {
+            meterRegistry.counter("rate.limit.rejected", "endpoint", "login", "scope", scope).increment();
+            throw new RateLimitExceededException(retryAfterSeconds);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+}
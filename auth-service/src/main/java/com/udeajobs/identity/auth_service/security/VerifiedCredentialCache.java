@@ -0,0 +1,128 @@
+package com.udeajobs.identity.auth_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Caché de corta duración de verificaciones de contraseña exitosas.
+ *
+ * Para cada email guarda un HMAC-SHA256 de (email, contraseña, hash almacenado) calculado
+ * con una clave aleatoria generada al arrancar, que nunca sale de la memoria del proceso.
+ * Un login repetido con las mismas credenciales recalcula el HMAC (microsegundos) en lugar
+ * de verificar BCrypt (decenas de milisegundos). No se guarda nunca la contraseña en claro,
+ * y como el hash almacenado forma parte del HMAC, una entrada deja de coincidir en cuanto
+ * la contraseña cambia; además {@link #evict(String)} la descarta en cada instancia al recibir el evento de
+ * cambio de credenciales. Está acotada por tamaño y TTL.
+ *
+ * Está desactivada por defecto ({@code app.verified-credentials.enabled}).
+ *
+ * Métricas exportadas: las de {@link CaffeineCacheMetrics} con {@code cache="verified-credentials"}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final Cache<String, byte[]> verified;
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Crea la caché con una clave HMAC aleatoria y registra sus métricas.
+     *
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param enabled si la caché está activa
+     * @param maxSize número máximo de emails con una verificación recordada
+     * @param ttl tiempo en milisegundos que se recuerda cada verificación
+     */
+    public VerifiedCredentialCache(MeterRegistry meterRegistry,
+                                   @Value("${app.verified-credentials.enabled}") boolean enabled,
+                                   @Value("${app.verified-credentials.max-size}") long maxSize,
+                                   @Value("${app.verified-credentials.ttl}") long ttl) {
+        this.enabled = enabled;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build();
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec secretKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(secretKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "verified-credentials");
+    }
+
+    /**
+     * Indica si estas credenciales se verificaron con éxito hace menos del TTL.
+     *
+     * @param email email del usuario
+     * @param rawPassword contraseña presentada
+     * @param storedHash hash almacenado del usuario
+     * @return true si la verificación de BCrypt puede omitirse
+     */
+    public boolean isVerified(String email, String rawPassword, String storedHash) {
+        if (!enabled) {
+            return false;
+        }
+        byte[] expected = verified.getIfPresent(email);
+        return expected != null && MessageDigest.isEqual(expected, hmac(email, rawPassword, storedHash));
+    }
+
+    /**
+     * Recuerda una verificación exitosa.
+     *
+     * @param email email del usuario
+     * @param rawPassword contraseña verificada
+     * @param storedHash hash almacenado contra el que se verificó
+     */
+    public void remember(String email, String rawPassword, String storedHash) {
+        if (enabled) {
+            verified.put(email, hmac(email, rawPassword, storedHash));
+        }
+    }
+
+    /**
+     * Olvida la verificación recordada de un usuario.
+     *
+     * @param email email del usuario
+     */
+    public void evict(String email) {
+        if (email != null) {
+            verified.invalidate(email);
+        }
+    }
+
+    private byte[] hmac(String email, String rawPassword, String storedHash) {
+        Mac mac = macs.get();
+        // Separadores nulos para que no haya dos tuplas distintas con la misma concatenación
+        mac.update(email.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        mac.update(storedHash.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,53 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.enums.STATUS;
+
+/**
+ * Copia inmutable de los campos de {@link User} necesarios para autenticar.
+ *
+ * La comparten la caché de {@link UserService} y la réplica {@link CredentialReplica};
+ * cada llamada a {@link #toUser()} construye una instancia nueva, de modo que ningún
+ * llamador puede modificar la copia compartida.
+ *
+ * @param id identificador del usuario
+ * @param email email del usuario
+ * @param password hash de la contraseña
+ * @param role rol del usuario
+ * @param status estado de la cuenta
+ * @param credentialsVersion versión de las credenciales
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+record CredentialRecord(String id, String email, String password, String role, STATUS status,
+                        Long credentialsVersion) {
+
+    /**
+     * Crea la copia a partir de un usuario.
+     *
+     * @param user usuario leído de MongoDB
+     * @return copia de sus credenciales
+     */
+    static CredentialRecord from(User user) {
+        return new CredentialRecord(user.getId(), user.getEmail(), user.getPassword(), user.getRole(),
+                user.getStatus(), user.getCredentialsVersion());
+    }
+
+    /**
+     * Construye un usuario nuevo con los campos de la copia.
+     *
+     * @return usuario listo para Spring Security
+     */
+    User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setPassword(password);
+        user.setRole(role);
+        user.setStatus(status);
+        user.setCredentialsVersion(credentialsVersion);
+        return user;
+    }
+}
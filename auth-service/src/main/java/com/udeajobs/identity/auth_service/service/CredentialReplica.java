@@ -0,0 +1,295 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.udeajobs.identity.auth_service.entity.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Réplica en memoria de los campos de credenciales de la colección {@code user}.
+ *
+ * Cuando {@code app.credential-replica.enabled} está activo, un hilo dedicado abre un
+ * change stream sobre {@code user}, carga una instantánea de la colección (solo los campos
+ * de {@link CredentialRecord}) y aplica después cada inserción, actualización, reemplazo o
+ * borrado. El change stream se abre antes de la instantánea, así que ningún cambio cae entre
+ * ambas; los eventos repetidos son idempotentes porque se aplican con el documento completo.
+ *
+ * El resume token se persiste en {@code credential_replica_state} cada
+ * {@code app.credential-replica.checkpoint-interval} milisegundos y se usa al reiniciar el
+ * servicio o al reconectar. Si el oplog ya no contiene ese punto, la réplica descarta el
+ * token y vuelve a cargar la instantánea. Requiere que MongoDB se ejecute como replica set
+ * (basta uno de un solo nodo).
+ *
+ * Hasta que la primera instantánea termina, {@link #lookup(String)} devuelve null y
+ * {@link UserService} consulta MongoDB como siempre.
+ *
+ * Métricas exportadas: {@code users.credential.replica.size}, {@code users.credential.replica.ready}
+ * y {@code users.credential.replica.events} con la etiqueta {@code operation}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class CredentialReplica implements ApplicationRunner, DisposableBean {
+
+    static final String STATE_COLLECTION = "credential_replica_state";
+
+    private static final String STATE_ID = "user";
+    private static final List<String> CREDENTIAL_FIELDS = List.of("email", "password", "role", "status", "credentialsVersion");
+
+    /**
+     * Errores de MongoDB que invalidan el resume token (ChangeStreamFatalError, ChangeStreamHistoryLost).
+     */
+    private static final List<Integer> LOST_HISTORY_CODES = List.of(280, 286);
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long checkpointIntervalMs;
+    private final long retryDelayMs;
+
+    private volatile Map<String, CredentialRecord> byEmail = new ConcurrentHashMap<>();
+    private volatile Map<String, String> emailById = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile boolean running;
+    private Thread tailer;
+
+    /**
+     * Crea la réplica y registra sus métricas.
+     *
+     * @param mongoTemplate plantilla de MongoDB
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param enabled si la réplica está activa
+     * @param checkpointIntervalMs cada cuántos milisegundos se persiste el resume token
+     * @param retryDelayMs espera en milisegundos antes de reabrir un change stream fallido
+     */
+    public CredentialReplica(MongoTemplate mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.credential-replica.enabled}") boolean enabled,
+                             @Value("${app.credential-replica.checkpoint-interval}") long checkpointIntervalMs,
+                             @Value("${app.credential-replica.retry-delay}") long retryDelayMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.checkpointIntervalMs = checkpointIntervalMs;
+        this.retryDelayMs = retryDelayMs;
+        Gauge.builder("users.credential.replica.size", this, replica -> replica.byEmail.size())
+                .register(meterRegistry);
+        Gauge.builder("users.credential.replica.ready", this, replica -> replica.ready ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        tailer = new Thread(this::tail, "credential-replica");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    /**
+     * Busca las credenciales de un usuario en la réplica.
+     *
+     * @param email email del usuario
+     * @return copia de sus credenciales, o null si la réplica no está lista o no lo contiene
+     */
+    public CredentialRecord lookup(String email) {
+        return ready ? byEmail.get(email) : null;
+    }
+
+    /**
+     * Detiene el hilo del change stream al cerrar el contexto de Spring.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (tailer != null) {
+            tailer.interrupt();
+            tailer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void tail() {
+        BsonDocument resumeToken = loadResumeToken();
+        boolean snapshotLoaded = false;
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open(resumeToken)) {
+                if (!snapshotLoaded) {
+                    loadSnapshot();
+                    snapshotLoaded = true;
+                }
+                long lastCheckpoint = System.currentTimeMillis();
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null && !apply(change)) {
+                        // El change stream quedó invalidado: se recarga desde cero
+                        resumeToken = null;
+                        snapshotLoaded = false;
+                        break;
+                    }
+                    BsonDocument token = cursor.getResumeToken();
+                    if (token != null) {
+                        resumeToken = token;
+                        if (System.currentTimeMillis() - lastCheckpoint >= checkpointIntervalMs) {
+                            saveResumeToken(token);
+                            lastCheckpoint = System.currentTimeMillis();
+                        }
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (LOST_HISTORY_CODES.contains(e.getErrorCode())) {
+                    log.warn("El resume token de la réplica de credenciales ya no está en el oplog; se recarga la instantánea");
+                    resumeToken = null;
+                    snapshotLoaded = false;
+                } else {
+                    pause(e);
+                }
+            } catch (RuntimeException e) {
+                pause(e);
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(BsonDocument resumeToken) {
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.in("operationType", "insert", "update", "replace", "delete", "drop", "rename", "invalidate")),
+                Aggregates.project(Projections.include(Stream.concat(
+                        Stream.of("operationType", "documentKey"),
+                        CREDENTIAL_FIELDS.stream().map(field -> "fullDocument." + field)).toList())));
+        var changeStream = collection().watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            changeStream.resumeAfter(resumeToken);
+        }
+        return changeStream.cursor();
+    }
+
+    private void loadSnapshot() {
+        Map<String, CredentialRecord> records = new ConcurrentHashMap<>();
+        Map<String, String> emails = new ConcurrentHashMap<>();
+        Query query = new Query();
+        CREDENTIAL_FIELDS.forEach(field -> query.fields().include(field));
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            users.filter(user -> user.getEmail() != null).forEach(user -> {
+                records.put(user.getEmail(), CredentialRecord.from(user));
+                emails.put(user.getId(), user.getEmail());
+            });
+        }
+        byEmail = records;
+        emailById = emails;
+        ready = true;
+        log.info("Réplica de credenciales cargada con {} usuarios", records.size());
+    }
+
+    /**
+     * Aplica un evento del change stream.
+     *
+     * @return false si el evento invalida el change stream y hay que recargar la instantánea
+     */
+    private boolean apply(ChangeStreamDocument<Document> change) {
+        OperationType operation = change.getOperationType();
+        meterRegistry.counter("users.credential.replica.events", "operation", operation.getValue()).increment();
+        if (operation == OperationType.DROP || operation == OperationType.RENAME || operation == OperationType.INVALIDATE) {
+            return false;
+        }
+        String id = idOf(change.getDocumentKey());
+        Document document = change.getFullDocument();
+        if (operation == OperationType.DELETE || document == null) {
+            // Sin documento completo el usuario se borró antes de la consulta de updateLookup
+            String email = emailById.remove(id);
+            if (email != null) {
+                byEmail.remove(email);
+            }
+            return true;
+        }
+        User user = mongoTemplate.getConverter().read(User.class, document);
+        user.setId(id);
+        if (user.getEmail() == null) {
+            return true;
+        }
+        String previousEmail = emailById.put(id, user.getEmail());
+        if (previousEmail != null && !previousEmail.equals(user.getEmail())) {
+            byEmail.remove(previousEmail);
+        }
+        byEmail.put(user.getEmail(), CredentialRecord.from(user));
+        return true;
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey.get("_id");
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private BsonDocument loadResumeToken() {
+        try {
+            BsonDocument state = stateCollection().find(Filters.eq("_id", STATE_ID)).first();
+            return state == null ? null : state.getDocument("resumeToken", null);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo leer el resume token de la réplica de credenciales", e);
+            return null;
+        }
+    }
+
+    private void saveResumeToken(BsonDocument token) {
+        BsonDocument state = new BsonDocument("_id", new BsonString(STATE_ID))
+                .append("resumeToken", token)
+                .append("updatedAt", new BsonDateTime(System.currentTimeMillis()));
+        stateCollection().replaceOne(Filters.eq("_id", STATE_ID), state, new ReplaceOptions().upsert(true));
+    }
+
+    private void pause(RuntimeException e) {
+        if (!running) {
+            return;
+        }
+        log.warn("Change stream de la réplica de credenciales interrumpido; se reintenta en {} ms", retryDelayMs, e);
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class));
+    }
+
+    private MongoCollection<BsonDocument> stateCollection() {
+        return mongoTemplate.getCollection(STATE_COLLECTION).withDocumentClass(BsonDocument.class);
+    }
+}
@@ -0,0 +1,25 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.entity.User;
+
+/**
+ * Interfaz de servicio para recalcular en segundo plano los hashes de contraseña.
+ *
+ * Tras un login exitoso es el único momento en que se conoce la contraseña en claro,
+ * así que se aprovecha para llevar el hash almacenado al costo BCrypt calibrado.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public interface PasswordRehashService {
+    /**
+     * Programa el recálculo del hash si su costo es menor que el actual.
+     *
+     * No bloquea al llamador: el hash se calcula y guarda de forma asíncrona.
+     *
+     * @param user usuario autenticado con el hash almacenado
+     * @param rawPassword contraseña en claro ya verificada
+     */
+    void rehashIfNeeded(User user, String rawPassword);
+}
@@ -0,0 +1,124 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.exception.HashingCapacityExceededException;
+import com.udeajobs.identity.auth_service.security.AdaptiveBCryptPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementación del recálculo de hashes de contraseña tras el login.
+ *
+ * Las tareas se encolan en un único hilo dedicado con cola acotada; el hash nuevo se
+ * calcula a través del {@link PasswordEncoder} (y por tanto del pool acotado de hashing)
+ * y se guarda con una actualización condicional sobre el hash anterior, de modo que un
+ * cambio de contraseña concurrente nunca se sobrescribe. Tras guardar el hash nuevo se
+ * descarta la entrada del usuario en la caché de {@link UserService}.
+ *
+ * Métrica exportada: {@code password.rehash} con la etiqueta {@code result}
+ * (upgraded, conflict, rejected, failed).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+public class PasswordRehashServiceImpl implements PasswordRehashService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final UserService userService;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Crea el servicio y su hilo de recálculo.
+     *
+     * @param passwordEncoder codificador de contraseñas de la aplicación
+     * @param mongoTemplate plantilla de MongoDB para la actualización condicional
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param userService servicio de usuarios cuya caché se invalida tras el recálculo
+     * @param queueCapacity recálculos pendientes que pueden esperar en cola
+     */
+    public PasswordRehashServiceImpl(PasswordEncoder passwordEncoder,
+                                     MongoTemplate mongoTemplate,
+                                     MeterRegistry meterRegistry,
+                                     UserService userService,
+                                     @Value("${app.hashing.rehash.queue-capacity}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.userService = userService;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehash");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void rehashIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (user.getId() == null || !passwordEncoder.upgradeEncoding(currentHash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> rehash(user.getId(), user.getEmail(), currentHash, rawPassword));
+        } catch (RejectedExecutionException e) {
+            record("rejected");
+        }
+    }
+
+    private void rehash(String userId, String email, String currentHash, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            Query query = Query.query(Criteria.where("_id").is(userId).and("password").is(currentHash));
+            long modified = mongoTemplate.updateFirst(query, Update.update("password", newHash), User.class)
+                    .getModifiedCount();
+            if (modified == 0) {
+                record("conflict");
+                return;
+            }
+            userService.evict(email);
+            int from = AdaptiveBCryptPasswordEncoder.strengthOf(currentHash);
+            int to = AdaptiveBCryptPasswordEncoder.strengthOf(newHash);
+            record("upgraded");
+            log.debug("Hash de contraseña del usuario {} recalculado de costo {} a {}", userId, from, to);
+        } catch (HashingCapacityExceededException e) {
+            // El pool está saturado por logins reales: se reintentará en el próximo login
+            record("rejected");
+        } catch (RuntimeException e) {
+            record("failed");
+            log.warn("No se pudo recalcular el hash de contraseña del usuario {}", userId, e);
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("password.rehash", "result", result).increment();
+    }
+
+    /**
+     * Detiene el hilo de recálculo al cerrar el contexto de Spring.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,6 +1,7 @@
 package com.udeajobs.identity.auth_service.service;
 
 import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import com.udeajobs.identity.auth_service.entity.User;
 
 import java.util.Optional;
 
@@ -15,20 +16,58 @@ import java.util.Optional;
  */
 public interface RefreshTokenService {
     /**
-     * Busca un refresh token por su valor.
+     * Busca un refresh token por el valor que presenta el cliente.
      *
-     * @param token valor UUID del refresh token
+     * @param token valor del refresh token ({@code <id>.<secreto>} o UUID heredado)
      * @return Optional con el refresh token si existe, Optional vacío si no se encuentra
      */
     Optional<RefreshToken> findByToken(String token);
 
     /**
-     * Crea un nuevo refresh token para un usuario.
+     * Crea un nuevo refresh token para un usuario ya cargado.
      *
-     * @param userEmail email del usuario para quien se crea el refresh token
+     * @param user usuario autenticado para quien se crea el refresh token
      * @return RefreshToken creado y guardado en la base de datos
      */
-    RefreshToken createRefreshToken(String userEmail);
+    RefreshToken createRefreshToken(User user);
+
+    /**
+     * Elimina los refresh tokens cuya copia del usuario quedó obsoleta.
+     *
+     * @param userId identificador del usuario
+     * @param credentialsVersion versión de credenciales vigente; se eliminan los tokens con una versión menor
+     * @return número de tokens eliminados
+     */
+    long revokeStaleTokens(String userId, long credentialsVersion);
+
+    /**
+     * Extiende la expiración de un refresh token usado (expiración deslizante).
+     *
+     * @param token refresh token válido presentado por el cliente
+     */
+    void slideExpiry(RefreshToken token);
+
+    /**
+     * Sustituye un refresh token por uno nuevo de la misma familia, si la rotación está activa.
+     *
+     * Si el token ya había sido rotado se considera una reutilización: se revoca toda su
+     * familia y se lanza una excepción.
+     *
+     * @param token refresh token presentado por el cliente
+     * @return el token nuevo, o el mismo token si la rotación está desactivada
+     * @throws RuntimeException si el token ya había sido rotado
+     */
+    RefreshToken rotate(RefreshToken token);
+
+    /**
+     * Verifica que la sesión del refresh token no haya sido revocada con "cerrar todas las sesiones".
+     *
+     * Si fue revocada, elimina la familia del token y lanza una excepción.
+     *
+     * @param token refresh token a verificar
+     * @throws RuntimeException si la sesión fue revocada
+     */
+    void verifySession(RefreshToken token);
 
     /**
      * Verifica si un refresh token ha expirado.
@@ -1,13 +1,22 @@
 package com.udeajobs.identity.auth_service.service;
 
 import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import com.udeajobs.identity.auth_service.entity.TokenSubject;
+import com.udeajobs.identity.auth_service.entity.User;
 import com.udeajobs.identity.auth_service.repository.RefreshTokenRepository;
-import com.udeajobs.identity.auth_service.repository.UserRepository;
+import com.udeajobs.identity.auth_service.util.Digests;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Optional;
 
 /**
@@ -16,10 +25,25 @@ import java.util.Optional;
  * Gestiona el ciclo de vida completo de los refresh tokens: creación, búsqueda,
  * verificación de expiración y eliminación de tokens vencidos.
  *
+ * Los tokens se emiten como {@code <id>.<secreto>}: {@code id} es el {@code _id} del documento
+ * y el secreto son 32 bytes aleatorios de los que solo se guarda el hash SHA-256. La búsqueda
+ * es por clave primaria y la comparación del hash se hace en tiempo constante.
+ *
+ * Con {@code jwt.refresh.rotation.enabled} cada renovación sustituye el token por otro de la
+ * misma familia; las escrituras pasan por {@link RefreshTokenWriteBuffer}. Presentar un
+ * token ya rotado revoca la familia completa.
+ *
+ * La expiración es deslizante: cada renovación puede alargarla hasta {@code jwt.refresh.expiration}
+ * desde ese momento, sin superar {@code jwt.refresh.sliding.max-lifetime} desde el inicio de la
+ * sesión. Para que la mayoría de renovaciones sean de solo lectura, la nueva fecha solo se
+ * guarda cuando el token ha consumido al menos {@code jwt.refresh.sliding.renew-fraction} de su
+ * vida, y la escritura se agrupa de forma asíncrona en {@link RefreshTokenWriteBuffer}.
+ *
  * @author UdeAJobs Team
  * @version 1.0
  * @since 1.0
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenServiceImpl implements RefreshTokenService {
@@ -29,46 +53,211 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Value("${jwt.refresh.expiration}")
     private long refreshTokenDurationMs;
 
+    /**
+     * Indica si cada renovación emite un refresh token nuevo.
+     */
+    @Value("${jwt.refresh.rotation.enabled}")
+    private boolean rotationEnabled;
+
+    /**
+     * Indica si las renovaciones extienden la expiración del refresh token.
+     */
+    @Value("${jwt.refresh.sliding.enabled}")
+    private boolean slidingEnabled;
+
+    /**
+     * Fracción de la vida del token que debe consumirse antes de guardar una nueva expiración.
+     */
+    @Value("${jwt.refresh.sliding.renew-fraction}")
+    private double renewFraction;
+
+    /**
+     * Duración máxima en milisegundos de una sesión desde el login, aunque se siga renovando.
+     */
+    @Value("${jwt.refresh.sliding.max-lifetime}")
+    private long maxLifetimeMs;
+
+    private static final int SECRET_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
+    private final RefreshTokenWriteBuffer writeBuffer;
+    private final SessionService sessionService;
+    private final MeterRegistry meterRegistry;
 
     /**
-     * Busca un refresh token por su valor UUID.
+     * Busca un refresh token por el valor que presenta el cliente.
+     *
+     * Los tokens {@code <id>.<secreto>} se resuelven por {@code _id} y se validan comparando el
+     * hash del secreto; los UUID heredados se buscan por el campo {@code token}.
      *
-     * @param token valor UUID del refresh token
-     * @return Optional con el refresh token si existe, Optional vacío si no se encuentra
+     * @param token valor del refresh token
+     * @return Optional con el refresh token si existe y el secreto es correcto, Optional vacío en otro caso
      */
     @Override
     public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+        if (token == null) {
+            return Optional.empty();
+        }
+        int separator = token.indexOf('.');
+        Optional<RefreshToken> refreshToken;
+        if (separator < 0) {
+            refreshToken = refreshTokenRepository.findByToken(token);
+        } else {
+            String id = token.substring(0, separator);
+            String secret = token.substring(separator + 1);
+            if (!ObjectId.isValid(id)) {
+                return Optional.empty();
+            }
+            refreshToken = writeBuffer.pending(id)
+                    .or(() -> refreshTokenRepository.findById(id))
+                    .filter(candidate -> candidate.getSecretHash() != null)
+                    .filter(candidate -> MessageDigest.isEqual(
+                            candidate.getSecretHash().getBytes(StandardCharsets.US_ASCII),
+                            hashSecret(secret).getBytes(StandardCharsets.US_ASCII)));
+        }
+        refreshToken.ifPresent(found -> found.setRawToken(token));
+        return refreshToken;
     }
 
     /**
      * Crea un nuevo refresh token para un usuario.
      *
-     * Genera un UUID único, establece la fecha de expiración basada en la configuración
-     * y asocia el token con el usuario especificado.
+     * Antes de emitirlo cierra las sesiones más antiguas del usuario si alcanzó el límite.
+     * Genera el identificador y un secreto aleatorio, guarda solo el hash del secreto,
+     * establece la fecha de expiración basada en la configuración y embebe una copia del
+     * usuario recibido, sin volver a consultarlo en la base de datos. El valor en claro
+     * queda disponible en {@link RefreshToken#getRawToken()} únicamente en el objeto devuelto.
      *
-     * @param userEmail email del usuario para quien se crea el refresh token
+     * @param user usuario autenticado para quien se crea el refresh token
      * @return RefreshToken creado y guardado en la base de datos
-     * @throws java.util.NoSuchElementException si el usuario no existe
      */
     @Override
-    public RefreshToken createRefreshToken(String userEmail) {
-        RefreshToken refreshToken = new RefreshToken();
+    public RefreshToken createRefreshToken(User user) {
+        long generation = sessionService.currentGeneration(user.getId());
+        sessionService.evictOldestSessions(user.getId(), generation);
 
-        refreshToken.setUser(userRepository.findByEmail(userEmail).orElseThrow());
-        refreshToken.setExperyDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(java.util.UUID.randomUUID().toString());
+        Instant now = Instant.now();
+        RefreshToken refreshToken = newToken(TokenSubject.from(user), now.plusMillis(refreshTokenDurationMs), null);
+        refreshToken.setSessionStartedAt(now);
+        refreshToken.setSessionGeneration(generation);
+
+        RefreshToken saved = refreshTokenRepository.save(refreshToken);
+        saved.setRawToken(refreshToken.getRawToken());
+        return saved;
+    }
 
-        return refreshTokenRepository.save(refreshToken);
+    /**
+     * Extiende la expiración del token si ya consumió la fracción configurada de su vida.
+     *
+     * La nueva fecha se aplica al objeto de inmediato (la hereda el token rotado, si la rotación
+     * está activa) y, si no hay rotación, se guarda de forma asíncrona. Si no se cruzó el umbral
+     * no hay escritura.
+     *
+     * @param token refresh token válido presentado por el cliente
+     */
+    @Override
+    public void slideExpiry(RefreshToken token) {
+        if (!slidingEnabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        long remainingMs = token.getExperyDate().toEpochMilli() - now.toEpochMilli();
+        if (remainingMs > refreshTokenDurationMs * (1 - renewFraction)) {
+            return;
+        }
+
+        Instant sessionStart = token.getSessionStartedAt() != null
+                ? token.getSessionStartedAt()
+                : token.getExperyDate().minusMillis(refreshTokenDurationMs);
+        Instant extended = now.plusMillis(refreshTokenDurationMs);
+        Instant limit = sessionStart.plusMillis(maxLifetimeMs);
+        if (extended.isAfter(limit)) {
+            extended = limit;
+        }
+        if (!extended.isAfter(token.getExperyDate())) {
+            return;
+        }
+
+        // El token es siempre una copia propia de esta petición: la escritura va por el buffer
+        token.setExperyDate(extended);
+        if (!rotationEnabled) {
+            writeBuffer.extend(token.getId(), extended);
+        }
+        meterRegistry.counter("refresh.tokens.expiry.extended").increment();
+    }
+
+    /**
+     * Sustituye un refresh token por uno nuevo de la misma familia.
+     *
+     * El token nuevo conserva la copia del usuario y la fecha de expiración del anterior
+     * (ya extendida por {@link #slideExpiry(RefreshToken)}, si corresponde). El retiro del anterior es atómico: si dos
+     * peticiones rotan el mismo token a la vez, solo una lo consigue y la otra se trata como
+     * reutilización.
+     *
+     * @param token refresh token presentado por el cliente
+     * @return el token nuevo, o el mismo token si la rotación está desactivada
+     * @throws RuntimeException si el token ya había sido rotado
+     */
+    @Override
+    public RefreshToken rotate(RefreshToken token) {
+        if (token.getRotatedAt() != null || writeBuffer.isRetired(token.getId())) {
+            throw reuseDetected(token);
+        }
+        if (!rotationEnabled) {
+            return token;
+        }
+
+        String familyId = token.getFamilyId() != null ? token.getFamilyId() : token.getId();
+        RefreshToken next = newToken(token.getSubject(), token.getExperyDate(), familyId);
+        next.setSessionStartedAt(token.getSessionStartedAt());
+        next.setSessionGeneration(token.getSessionGeneration());
+        if (!writeBuffer.retire(token, Instant.now())) {
+            throw reuseDetected(token);
+        }
+        writeBuffer.issue(next);
+        meterRegistry.counter("refresh.tokens.rotated").increment();
+        return next;
+    }
+
+    /**
+     * Elimina los refresh tokens emitidos con una versión de credenciales anterior.
+     *
+     * @param userId identificador del usuario
+     * @param credentialsVersion versión de credenciales vigente
+     * @return número de tokens eliminados
+     */
+    @Override
+    public long revokeStaleTokens(String userId, long credentialsVersion) {
+        return refreshTokenRepository.deleteBySubjectUserIdAndSubjectCredentialsVersionLessThan(userId, credentialsVersion);
+    }
+
+    /**
+     * Verifica que la generación del token siga vigente para su usuario.
+     *
+     * @param token refresh token a verificar
+     * @throws RuntimeException si el usuario cerró todas sus sesiones después de emitirlo
+     */
+    @Override
+    public void verifySession(RefreshToken token) {
+        TokenSubject subject = token.getSubject();
+        if (sessionService.isRevoked(subject.getUserId(), token.getSessionGeneration(), token.getSessionStartedAt())) {
+            String familyId = token.getFamilyId() != null ? token.getFamilyId() : token.getId();
+            writeBuffer.discardFamily(familyId);
+            refreshTokenRepository.deleteByFamilyId(familyId);
+            refreshTokenRepository.deleteById(token.getId());
+            throw new RuntimeException("Session was revoked. Please make a new signin request");
+        }
     }
 
     /**
      * Verifica si un refresh token ha expirado.
      *
      * Si el token ha expirado, lo elimina de la base de datos y lanza una excepción.
-     * Si el token es válido, lo retorna sin modificaciones.
+     * Si el token es válido, lo retorna sin modificaciones. El índice TTL sobre
+     * {@code experyDate} elimina el resto de tokens vencidos, pero el monitor TTL de MongoDB
+     * solo se ejecuta cada minuto, así que la comprobación sigue siendo necesaria.
      *
      * @param token refresh token a verificar
      * @return el mismo refresh token si es válido
@@ -82,4 +271,36 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
         }
         return token;
     }
+
+    private RefreshToken newToken(TokenSubject subject, Instant expiryDate, String familyId) {
+        byte[] secretBytes = new byte[SECRET_BYTES];
+        SECURE_RANDOM.nextBytes(secretBytes);
+        String id = new ObjectId().toHexString();
+        String secret = BASE64_URL.encodeToString(secretBytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(id);
+        refreshToken.setSubject(subject);
+        refreshToken.setExperyDate(expiryDate);
+        refreshToken.setFamilyId(familyId != null ? familyId : id);
+        refreshToken.setIssuedAt(Instant.now());
+        refreshToken.setSecretHash(hashSecret(secret));
+        refreshToken.setRawToken(id + "." + secret);
+        return refreshToken;
+    }
+
+    private RuntimeException reuseDetected(RefreshToken token) {
+        String familyId = token.getFamilyId() != null ? token.getFamilyId() : token.getId();
+        writeBuffer.discardFamily(familyId);
+        long revoked = refreshTokenRepository.deleteByFamilyId(familyId);
+        refreshTokenRepository.deleteById(token.getId());
+        meterRegistry.counter("refresh.tokens.reuse.detected").increment();
+        log.warn("Reutilización de refresh token detectada para el usuario {}: familia {} revocada ({} tokens)",
+                token.getSubject() != null ? token.getSubject().getUserId() : null, familyId, revoked);
+        return new RuntimeException("Refresh token reuse detected. Please make a new signin request");
+    }
+
+    private static String hashSecret(String secret) {
+        return BASE64_URL.encodeToString(Digests.sha256(secret));
+    }
 }
@@ -0,0 +1,321 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffer de escritura para las rotaciones y extensiones de expiración de refresh tokens.
+ *
+ * Cada rotación produce dos escrituras: el token nuevo y la marca de retiro del anterior.
+ * En modo {@link WriteMode#SYNC} se escriben de inmediato (el retiro es una actualización
+ * condicional, así que dos rotaciones concurrentes del mismo token no pueden tener éxito).
+ * En modo {@link WriteMode#WRITE_BEHIND} se acumulan en memoria y se confirman en grupo
+ * con una escritura bulk cada {@code flush-interval} milisegundos; mientras tanto las
+ * lecturas consultan primero este buffer. Las escrituras son idempotentes (upsert por
+ * {@code _id}), de modo que un lote fallido se reintenta en el siguiente ciclo.
+ *
+ * El modo WRITE_BEHIND cambia durabilidad por latencia: si el proceso termina de forma
+ * abrupta antes de un flush, los tokens emitidos en esa ventana se pierden y sus clientes
+ * deben volver a iniciar sesión, y la detección de reutilización solo es inmediata dentro
+ * de la misma instancia.
+ *
+ * Las extensiones de expiración deslizante se acumulan siempre, en ambos modos: varias
+ * extensiones del mismo token se fusionan en una sola y se escriben con {@code $max}, así
+ * que nunca acortan un token. Perder una extensión solo significa que el token expira en
+ * su fecha anterior.
+ *
+ * El flush corre en un hilo propio ({@code refresh-token-flush}) y no en el planificador
+ * compartido de Spring, para que una tarea lenta como la reconstrucción del filtro de emails
+ * no retrase las confirmaciones y amplíe la ventana de durabilidad.
+ *
+ * Métricas exportadas: {@code refresh.tokens.buffer.pending}, {@code refresh.tokens.buffer.flush}
+ * y {@code refresh.tokens.buffer.failures}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class RefreshTokenWriteBuffer {
+
+    /**
+     * Estrategia de persistencia de las rotaciones.
+     */
+    public enum WriteMode {
+        /** Cada rotación se escribe antes de responder. */
+        SYNC,
+        /** Las rotaciones se acumulan y se confirman en grupo periódicamente. */
+        WRITE_BEHIND
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final WriteMode writeMode;
+    private final int maxBatch;
+    private final long flushIntervalMs;
+    private final ScheduledExecutorService flusher;
+    private final Map<String, RefreshToken> pendingInserts = new ConcurrentHashMap<>();
+    private final Map<String, Instant> pendingRetirements = new ConcurrentHashMap<>();
+    private final Map<String, Instant> pendingExtensions = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    /**
+     * Crea el buffer de escritura.
+     *
+     * @param mongoTemplate plantilla de MongoDB
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param writeMode modo de persistencia de las rotaciones
+     * @param maxBatch operaciones máximas por escritura bulk
+     * @param flushIntervalMs milisegundos entre escrituras bulk
+     */
+    public RefreshTokenWriteBuffer(MongoTemplate mongoTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${jwt.refresh.rotation.write-mode}") WriteMode writeMode,
+                                   @Value("${jwt.refresh.rotation.max-batch}") int maxBatch,
+                                   @Value("${jwt.refresh.rotation.flush-interval}") long flushIntervalMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.writeMode = writeMode;
+        this.maxBatch = maxBatch;
+        this.flushIntervalMs = flushIntervalMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushTimer = Timer.builder("refresh.tokens.buffer.flush")
+                .description("Duración de cada escritura bulk del buffer de refresh tokens")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("refresh.tokens.buffer.failures")
+                .description("Escrituras bulk fallidas que se reintentarán")
+                .register(meterRegistry);
+        Gauge.builder("refresh.tokens.buffer.pending", this, RefreshTokenWriteBuffer::pendingCount)
+                .description("Escrituras de refresh tokens pendientes de confirmar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Arranca el hilo que confirma las escrituras acumuladas cada {@code flush-interval} milisegundos.
+     */
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // Una excepción no capturada cancelaría las ejecuciones siguientes
+                log.error("Error inesperado en el flush de refresh tokens", e);
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra un token nuevo emitido por una rotación.
+     *
+     * @param token token a persistir
+     */
+    public void issue(RefreshToken token) {
+        if (writeMode == WriteMode.SYNC) {
+            mongoTemplate.insert(token);
+        } else {
+            pendingInserts.put(token.getId(), token);
+        }
+    }
+
+    /**
+     * Marca un token como retirado, solo si nadie lo retiró antes.
+     *
+     * @param token token que se sustituye
+     * @param rotatedAt instante de la rotación
+     * @return true si este llamador lo retiró; false si ya estaba retirado (reutilización)
+     */
+    public boolean retire(RefreshToken token, Instant rotatedAt) {
+        if (pendingRetirements.putIfAbsent(token.getId(), rotatedAt) != null) {
+            return false;
+        }
+        if (writeMode == WriteMode.WRITE_BEHIND) {
+            return true;
+        }
+        try {
+            Query notRotated = Query.query(Criteria.where("_id").is(token.getId()).and("rotatedAt").isNull());
+            return mongoTemplate.updateFirst(notRotated, Update.update("rotatedAt", rotatedAt), RefreshToken.class)
+                    .getModifiedCount() > 0;
+        } finally {
+            pendingRetirements.remove(token.getId());
+        }
+    }
+
+    /**
+     * Programa la extensión de la expiración de un token.
+     *
+     * @param id identificador del token
+     * @param expiryDate nueva fecha de expiración
+     */
+    public void extend(String id, Instant expiryDate) {
+        pendingExtensions.merge(id, expiryDate, (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    /**
+     * Devuelve una copia de un token emitido que aún no se ha escrito en MongoDB.
+     *
+     * El objeto del buffer no sale nunca de aquí, porque el hilo de flush puede estar
+     * serializándolo; los cambios de expiración se aplican solo con {@link #extend(String, Instant)},
+     * y la copia ya refleja la extensión pendiente, si la hay.
+     *
+     * @param id identificador del token
+     * @return copia del token pendiente, si existe
+     */
+    public Optional<RefreshToken> pending(String id) {
+        return Optional.ofNullable(pendingInserts.get(id)).map(token -> copyOf(token, pendingExtensions.get(id)));
+    }
+
+    /**
+     * Indica si el token tiene un retiro pendiente de escribir.
+     *
+     * @param id identificador del token
+     * @return true si el token ya fue rotado en esta instancia
+     */
+    public boolean isRetired(String id) {
+        return pendingRetirements.containsKey(id);
+    }
+
+    /**
+     * Descarta los tokens pendientes de una familia revocada.
+     *
+     * @param familyId identificador de la familia
+     */
+    public void discardFamily(String familyId) {
+        pendingInserts.values().removeIf(token -> familyId.equals(token.getFamilyId()));
+    }
+
+    /**
+     * Descarta los tokens pendientes de una familia, solo si pertenecen al usuario indicado.
+     *
+     * @param userId identificador del propietario de la familia
+     * @param familyId identificador de la familia
+     * @return número de tokens pendientes descartados
+     */
+    public int discardFamily(String userId, String familyId) {
+        int discarded = 0;
+        for (Map.Entry<String, RefreshToken> entry : pendingInserts.entrySet()) {
+            RefreshToken token = entry.getValue();
+            if (familyId.equals(token.getFamilyId()) && token.getSubject() != null
+                    && userId.equals(token.getSubject().getUserId())
+                    && pendingInserts.remove(entry.getKey(), token)) {
+                discarded++;
+            }
+        }
+        return discarded;
+    }
+
+    /**
+     * Confirma en MongoDB las escrituras acumuladas con una única operación bulk ordenada.
+     */
+    public void flush() {
+        if (pendingCount() == 0) {
+            return;
+        }
+        synchronized (flushLock) {
+            Map<String, RefreshToken> inserts = snapshot(pendingInserts);
+            Map<String, Instant> retirements = snapshot(pendingRetirements);
+            Map<String, Instant> extensions = snapshot(pendingExtensions);
+            // Un retiro o extensión cuyo token aún no se ha insertado espera al lote que incluya la inserción
+            retirements.keySet().removeIf(id -> pendingInserts.containsKey(id) && !inserts.containsKey(id));
+            extensions.keySet().removeIf(id -> pendingInserts.containsKey(id) && !inserts.containsKey(id));
+            if (inserts.isEmpty() && retirements.isEmpty() && extensions.isEmpty()) {
+                return;
+            }
+
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, RefreshToken.class);
+            inserts.forEach((id, token) -> operations.replaceOne(
+                    Query.query(Criteria.where("_id").is(id)), token, FindAndReplaceOptions.options().upsert()));
+            retirements.forEach((id, rotatedAt) -> operations.updateOne(
+                    Query.query(Criteria.where("_id").is(id)), Update.update("rotatedAt", rotatedAt)));
+            extensions.forEach((id, expiryDate) -> operations.updateOne(
+                    Query.query(Criteria.where("_id").is(id)), new Update().max("experyDate", expiryDate)));
+
+            try {
+                flushTimer.record(operations::execute);
+                inserts.forEach(pendingInserts::remove);
+                retirements.forEach(pendingRetirements::remove);
+                extensions.forEach(pendingExtensions::remove);
+            } catch (RuntimeException e) {
+                flushFailures.increment();
+                log.warn("No se pudo confirmar el lote de {} refresh tokens; se reintentará",
+                        inserts.size() + retirements.size() + extensions.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Detiene el hilo de flush y vacía el buffer al cerrar el contexto de Spring.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        while (pendingCount() > 0) {
+            int before = pendingCount();
+            flush();
+            if (pendingCount() >= before) {
+                log.error("Se descartan {} escrituras de refresh tokens pendientes al apagar", before);
+                return;
+            }
+        }
+    }
+
+    private static RefreshToken copyOf(RefreshToken token, Instant pendingExpiry) {
+        RefreshToken copy = new RefreshToken();
+        copy.setId(token.getId());
+        copy.setSubject(token.getSubject());
+        copy.setToken(token.getToken());
+        copy.setSecretHash(token.getSecretHash());
+        copy.setFamilyId(token.getFamilyId());
+        copy.setRotatedAt(token.getRotatedAt());
+        copy.setSessionStartedAt(token.getSessionStartedAt());
+        copy.setIssuedAt(token.getIssuedAt());
+        copy.setSessionGeneration(token.getSessionGeneration());
+        copy.setExperyDate(pendingExpiry != null && pendingExpiry.isAfter(token.getExperyDate())
+                ? pendingExpiry : token.getExperyDate());
+        return copy;
+    }
+
+    private int pendingCount() {
+        return pendingInserts.size() + pendingRetirements.size() + pendingExtensions.size();
+    }
+
+    private <V> Map<String, V> snapshot(Map<String, V> source) {
+        Map<String, V> batch = new LinkedHashMap<>();
+        for (Map.Entry<String, V> entry : source.entrySet()) {
+            if (batch.size() >= maxBatch) {
+                break;
+            }
+            batch.put(entry.getKey(), entry.getValue());
+        }
+        return batch;
+    }
+}
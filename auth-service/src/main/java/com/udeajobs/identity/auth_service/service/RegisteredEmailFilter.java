@@ -0,0 +1,150 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de pertenencia de los emails registrados, usado para descartar logins contra
+ * emails inexistentes sin consultar MongoDB.
+ *
+ * El filtro se construye al arrancar recorriendo la colección {@code user} en streaming
+ * (solo el campo {@code email}), se actualiza con los eventos de registro y verificación
+ * de account-service y se reconstruye periódicamente para recoger eventos perdidos y
+ * descartar cuentas borradas. Mientras no hay un filtro construido, o si la construcción
+ * falla, {@link #mightContain(String)} responde true y el login consulta MongoDB como antes.
+ *
+ * Las altas que llegan durante una reconstrucción se añaden tanto al filtro vigente como
+ * al que se está construyendo, de modo que el intercambio nunca pierde un email.
+ *
+ * Métricas exportadas: {@code users.email.filter.size} (bytes) y
+ * {@code users.email.filter.entries} (emails cargados en la última construcción).
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class RegisteredEmailFilter implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Filtro consultado en los logins; null hasta la primera construcción.
+     */
+    private volatile BloomFilter current;
+
+    /**
+     * Filtro en construcción, que también recibe las altas concurrentes.
+     */
+    private volatile BloomFilter building;
+
+    private volatile long entries;
+
+    /**
+     * Crea el filtro y registra sus métricas.
+     *
+     * @param mongoTemplate plantilla de MongoDB para recorrer la colección de usuarios
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param expectedInsertions número mínimo de emails para el que se dimensiona el filtro
+     * @param falsePositiveRate probabilidad de falso positivo deseada
+     */
+    public RegisteredEmailFilter(MongoTemplate mongoTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.email-filter.expected-insertions}") long expectedInsertions,
+                                 @Value("${app.email-filter.false-positive-rate}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        Gauge.builder("users.email.filter.size", this, filter -> filter.current == null ? 0 : filter.current.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.email.filter.entries", this, filter -> filter.entries)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye el filtro desde la colección de usuarios y lo intercambia por el vigente.
+     */
+    @Scheduled(initialDelayString = "${app.email-filter.rebuild-interval}",
+            fixedDelayString = "${app.email-filter.rebuild-interval}")
+    public void rebuild() {
+        try {
+            long users = mongoTemplate.estimatedCount(User.class);
+            // Se deja margen para las altas hasta la próxima reconstrucción
+            BloomFilter next = new BloomFilter(Math.max(expectedInsertions, users * 2), falsePositiveRate, random.nextLong());
+            building = next;
+            long loaded = 0;
+            Query query = new Query();
+            query.fields().include("email").exclude("_id");
+            try (Stream<Document> emails = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+                for (Document document : (Iterable<Document>) emails::iterator) {
+                    String email = document.getString("email");
+                    if (email != null) {
+                        next.put(email);
+                        loaded++;
+                    }
+                }
+            }
+            current = next;
+            entries = loaded;
+            log.info("Filtro de emails registrados construido con {} emails ({} bytes)", loaded, next.sizeInBytes());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo construir el filtro de emails registrados; se conserva el anterior", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Añade un email recién registrado al filtro.
+     *
+     * @param email email del usuario
+     */
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.put(email);
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(email);
+        }
+    }
+
+    /**
+     * Indica si un email puede estar registrado.
+     *
+     * @param email email a consultar
+     * @return false solo si el email seguro que no está registrado
+     */
+    public boolean mightContain(String email) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(email);
+    }
+}
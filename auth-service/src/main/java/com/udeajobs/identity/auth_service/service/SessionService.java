@@ -0,0 +1,82 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.dto.SessionResponse;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Interfaz de servicio para la gestión de las sesiones de un usuario.
+ *
+ * Una sesión es una familia de refresh tokens. Define el límite de sesiones por usuario,
+ * su listado y su revocación individual o completa.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SessionService {
+    /**
+     * Obtiene el usuario autenticado a partir de la cabecera Authorization.
+     *
+     * @param authorizationHeader valor de la cabecera ({@code Bearer <access token>})
+     * @return identificador del usuario
+     * @throws org.springframework.security.authentication.AuthenticationCredentialsNotFoundException si falta el token o no es válido
+     */
+    String authenticatedUserId(String authorizationHeader);
+
+    /**
+     * Retorna la generación de sesiones vigente del usuario.
+     *
+     * @param userId identificador del usuario
+     * @return generación vigente (0 si nunca se revocaron todas sus sesiones)
+     */
+    long currentGeneration(String userId);
+
+    /**
+     * Indica si una sesión quedó revocada por un "cerrar todas las sesiones".
+     *
+     * Una sesión está revocada si su generación es anterior a la vigente y empezó antes de la
+     * revocación; las que empezaron después con una generación cacheada anterior siguen vigentes.
+     *
+     * @param userId identificador del usuario
+     * @param sessionGeneration generación con la que se emitió la sesión
+     * @param sessionStartedAt instante en que empezó la sesión, o null si se desconoce
+     * @return true si la sesión debe rechazarse
+     */
+    boolean isRevoked(String userId, long sessionGeneration, Instant sessionStartedAt);
+
+    /**
+     * Elimina las sesiones más antiguas para dejar hueco a una nueva sin superar el límite.
+     *
+     * Solo cuenta los tokens vivos del usuario y únicamente los carga si alcanzó el límite.
+     *
+     * @param userId identificador del usuario
+     * @param generation generación vigente del usuario
+     */
+    void evictOldestSessions(String userId, long generation);
+
+    /**
+     * Lista las sesiones activas del usuario, de la más antigua a la más reciente.
+     *
+     * @param userId identificador del usuario
+     * @return sesiones activas
+     */
+    List<SessionResponse> listSessions(String userId);
+
+    /**
+     * Revoca una sesión del usuario.
+     *
+     * @param userId identificador del usuario
+     * @param sessionId identificador de la sesión
+     * @throws IllegalArgumentException si la sesión no existe o no pertenece al usuario
+     */
+    void revokeSession(String userId, String sessionId);
+
+    /**
+     * Revoca todas las sesiones del usuario incrementando su generación.
+     *
+     * @param userId identificador del usuario
+     */
+    void revokeAllSessions(String userId);
+}
@@ -0,0 +1,212 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.udeajobs.identity.auth_service.dto.SessionResponse;
+import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import com.udeajobs.identity.auth_service.entity.UserSessions;
+import com.udeajobs.identity.auth_service.util.JwtProvider;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación de la gestión de sesiones basada en familias de refresh tokens.
+ *
+ * El límite de sesiones se aplica al emitir un refresh token, eliminando primero las
+ * sesiones más antiguas. "Cerrar todas las sesiones" incrementa el contador de
+ * {@link UserSessions} en una sola escritura; los tokens de generaciones anteriores se
+ * rechazan al renovarse. La generación se cachea durante {@code jwt.refresh.generation-cache.ttl}
+ * milisegundos (hasta {@code jwt.refresh.generation-cache.max-size} usuarios) para no añadir
+ * una lectura a cada login ni a cada renovación. La instancia que revoca actualiza su caché al
+ * instante; las demás pueden aceptar una renovación de la generación anterior como máximo
+ * durante ese TTL, que es la ventana aceptada. Un login en otra instancia dentro de esa ventana
+ * emite la sesión con la generación cacheada, pero como empezó después de la revocación
+ * ({@link UserSessions#getRevokedAt()}) no se rechaza; la comparación depende de que los relojes
+ * de las instancias estén sincronizados.
+ *
+ * El límite de sesiones es aproximado: dos logins simultáneos pueden superarlo en una sesión,
+ * que el siguiente login del usuario vuelve a recortar.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Service
+public class SessionServiceImpl implements SessionService {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final MongoTemplate mongoTemplate;
+    private final JwtProvider jwtProvider;
+    private final RefreshTokenWriteBuffer writeBuffer;
+    private final int maxSessions;
+    private final Cache<String, UserSessions> generations;
+
+    /**
+     * Crea el servicio de sesiones.
+     *
+     * @param mongoTemplate plantilla de MongoDB
+     * @param jwtProvider proveedor de JWT para identificar al usuario
+     * @param writeBuffer buffer de escritura de las rotaciones
+     * @param maxSessions sesiones simultáneas permitidas por usuario
+     * @param generationCacheTtl milisegundos que se cachea la generación de un usuario
+     * @param generationCacheMaxSize usuarios cuya generación se cachea como máximo
+     */
+    public SessionServiceImpl(MongoTemplate mongoTemplate,
+                              JwtProvider jwtProvider,
+                              RefreshTokenWriteBuffer writeBuffer,
+                              @Value("${jwt.refresh.max-sessions-per-user}") int maxSessions,
+                              @Value("${jwt.refresh.generation-cache.ttl}") long generationCacheTtl,
+                              @Value("${jwt.refresh.generation-cache.max-size}") long generationCacheMaxSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.jwtProvider = jwtProvider;
+        this.writeBuffer = writeBuffer;
+        this.maxSessions = maxSessions;
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(generationCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(generationCacheTtl))
+                .build();
+    }
+
+    @Override
+    public String authenticatedUserId(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            throw new AuthenticationCredentialsNotFoundException("Missing bearer access token");
+        }
+        String userId;
+        try {
+            userId = jwtProvider.parseToken(authorizationHeader.substring(BEARER_PREFIX.length()))
+                    .getPayload().get(JwtProvider.USER_ID_CLAIM, String.class);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthenticationCredentialsNotFoundException("Invalid access token", e);
+        }
+        if (userId == null) {
+            throw new AuthenticationCredentialsNotFoundException("Access token has no user id, please refresh it");
+        }
+        return userId;
+    }
+
+    @Override
+    public long currentGeneration(String userId) {
+        return generations.get(userId, this::readSessions).getGeneration();
+    }
+
+    @Override
+    public boolean isRevoked(String userId, long sessionGeneration, Instant sessionStartedAt) {
+        UserSessions sessions = generations.get(userId, this::readSessions);
+        if (sessionGeneration >= sessions.getGeneration()) {
+            return false;
+        }
+        return sessions.getRevokedAt() == null || sessionStartedAt == null
+                || !sessionStartedAt.isAfter(sessions.getRevokedAt());
+    }
+
+    @Override
+    public void evictOldestSessions(String userId, long generation) {
+        // Un conteo basta en el caso habitual; los tokens solo se cargan si hay que cerrar alguna sesión
+        if (mongoTemplate.count(Query.query(liveTokens(userId, generation)), RefreshToken.class) < maxSessions) {
+            return;
+        }
+        List<RefreshToken> live = findLiveTokens(userId, generation);
+        Map<String, RefreshToken> sessions = latestPerSession(live);
+        int excess = sessions.size() - maxSessions + 1;
+        if (excess <= 0) {
+            return;
+        }
+        List<String> evicted = sessions.keySet().stream().limit(excess).toList();
+        evicted.forEach(writeBuffer::discardFamily);
+        mongoTemplate.remove(Query.query(Criteria.where("subject.userId").is(userId)
+                .orOperator(Criteria.where("familyId").in(evicted), Criteria.where("_id").in(evicted))), RefreshToken.class);
+        log.info("Límite de {} sesiones alcanzado para el usuario {}: {} sesiones antiguas cerradas", maxSessions, userId, excess);
+    }
+
+    @Override
+    public List<SessionResponse> listSessions(String userId) {
+        return latestPerSession(findLiveTokens(userId, currentGeneration(userId))).entrySet().stream()
+                .map(entry -> new SessionResponse(entry.getKey(), entry.getValue().getSessionStartedAt(),
+                        entry.getValue().getIssuedAt(), entry.getValue().getExperyDate()))
+                .toList();
+    }
+
+    @Override
+    public void revokeSession(String userId, String sessionId) {
+        // Ambos borrados se limitan a los tokens del propio usuario: una familia ajena no se toca
+        long deleted = mongoTemplate.remove(Query.query(Criteria.where("subject.userId").is(userId)
+                .orOperator(Criteria.where("familyId").is(sessionId), Criteria.where("_id").is(sessionId))), RefreshToken.class)
+                .getDeletedCount();
+        int discarded = writeBuffer.discardFamily(userId, sessionId);
+        if (deleted == 0 && discarded == 0) {
+            throw new IllegalArgumentException("Session not found");
+        }
+    }
+
+    @Override
+    public void revokeAllSessions(String userId) {
+        UserSessions sessions = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("generation", 1).set("revokedAt", Instant.now()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                UserSessions.class);
+        if (sessions == null) {
+            sessions = readSessions(userId);
+        }
+        generations.put(userId, sessions);
+        log.info("Todas las sesiones del usuario {} revocadas (generación {})", userId, sessions.getGeneration());
+    }
+
+    private UserSessions readSessions(String userId) {
+        UserSessions sessions = mongoTemplate.findById(userId, UserSessions.class);
+        if (sessions == null) {
+            sessions = new UserSessions();
+            sessions.setUserId(userId);
+        }
+        return sessions;
+    }
+
+    private static Criteria liveTokens(String userId, long generation) {
+        Criteria criteria = Criteria.where("subject.userId").is(userId)
+                .and("rotatedAt").isNull()
+                .and("experyDate").gt(Instant.now());
+        if (generation > 0) {
+            criteria = criteria.and("sessionGeneration").gte(generation);
+        }
+        return criteria;
+    }
+
+    private List<RefreshToken> findLiveTokens(String userId, long generation) {
+        Query query = Query.query(liveTokens(userId, generation)).with(Sort.by(Sort.Direction.ASC, "sessionStartedAt"));
+        query.fields().include("familyId", "sessionStartedAt", "issuedAt", "experyDate");
+        return mongoTemplate.find(query, RefreshToken.class).stream()
+                .filter(token -> !writeBuffer.isRetired(token.getId()))
+                .toList();
+    }
+
+    /**
+     * Agrupa los tokens por sesión conservando el orden de inicio y el token más reciente de cada una.
+     */
+    private static Map<String, RefreshToken> latestPerSession(List<RefreshToken> tokens) {
+        Map<String, RefreshToken> sessions = new LinkedHashMap<>();
+        for (RefreshToken token : tokens) {
+            String sessionId = token.getFamilyId() != null ? token.getFamilyId() : token.getId();
+            sessions.merge(sessionId, token, (current, candidate) ->
+                    candidate.getIssuedAt() != null && (current.getIssuedAt() == null || candidate.getIssuedAt().isAfter(current.getIssuedAt()))
+                            ? candidate : current);
+        }
+        return sessions;
+    }
+}
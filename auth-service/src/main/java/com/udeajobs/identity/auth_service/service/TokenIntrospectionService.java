@@ -0,0 +1,25 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.dto.IntrospectionResponse;
+
+import java.util.List;
+
+/**
+ * Interfaz de servicio para la introspección de access tokens.
+ *
+ * Permite a gateways y servicios internos validar tokens emitidos por este servicio
+ * sin conocer las claves de firma.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public interface TokenIntrospectionService {
+    /**
+     * Valida un lote de access tokens.
+     *
+     * @param tokens tokens a validar
+     * @return IntrospectionResponse con un resultado por token, en el mismo orden
+     */
+    IntrospectionResponse introspect(List<String> tokens);
+}
@@ -0,0 +1,172 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.udeajobs.identity.auth_service.dto.IntrospectionResponse;
+import com.udeajobs.identity.auth_service.dto.TokenIntrospection;
+import com.udeajobs.identity.auth_service.util.Digests;
+import com.udeajobs.identity.auth_service.util.JwtKeyRing;
+import com.udeajobs.identity.auth_service.util.JwtProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Implementación del servicio de introspección de access tokens.
+ *
+ * Memoriza cada firma verificada con éxito en una caché acotada por tamaño y por TTL,
+ * indexada por el SHA-256 del token, de modo que un token validado miles de veces por
+ * minuto solo paga la verificación criptográfica una vez. Los tokens rechazados no se
+ * memorizan: no pueden desplazar entradas legítimas y un token firmado con una clave que
+ * esta instancia aún no había cargado se acepta en cuanto el anillo la incorpora.
+ *
+ * La expiración y la vigencia de la clave con la que se verificó la firma se reevalúan en
+ * cada consulta, así que un resultado cacheado nunca mantiene activo un token expirado ni
+ * uno firmado con una clave ya retirada, tampoco los tokens antiguos sin {@code kid}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    private final JwtProvider jwtProvider;
+    private final JwtKeyRing keyRing;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * Crea el servicio y registra las métricas de la caché en Prometheus.
+     *
+     * @param jwtProvider proveedor que verifica las firmas
+     * @param keyRing anillo de claves de firma
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param maxSize número máximo de tokens memorizados
+     * @param ttl tiempo en milisegundos que se conserva cada resultado
+     */
+    public TokenIntrospectionServiceImpl(JwtProvider jwtProvider,
+                                         JwtKeyRing keyRing,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${jwt.introspection.cache.max-size}") long maxSize,
+                                         @Value("${jwt.introspection.cache.ttl}") long ttl) {
+        this.jwtProvider = jwtProvider;
+        this.keyRing = keyRing;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-introspection");
+    }
+
+    /**
+     * Valida un lote de access tokens usando la caché de verificaciones.
+     *
+     * @param tokens tokens a validar
+     * @return IntrospectionResponse con un resultado por token, en el mismo orden
+     */
+    @Override
+    public IntrospectionResponse introspect(List<String> tokens) {
+        Instant now = Instant.now();
+        return new IntrospectionResponse(tokens.stream()
+                .map(token -> introspect(token, now))
+                .toList());
+    }
+
+    private TokenIntrospection introspect(String token, Instant now) {
+        if (token == null || token.isBlank()) {
+            return TokenIntrospection.invalid("Token is empty");
+        }
+        String key = Digests.sha256Hex(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(key);
+        if (verified == null) {
+            String activeKid = keyRing.signingKey().kid();
+            verified = verify(token, activeKid);
+            // Si la clave activa rotó durante la verificación no se sabe con cuál se verificó un token sin kid
+            if (verified.error() == null && activeKid.equals(keyRing.signingKey().kid())) {
+                verifiedTokens.put(key, verified);
+            }
+        }
+        return verified.toIntrospection(now, keyRing);
+    }
+
+    private VerifiedToken verify(String token, String activeKid) {
+        try {
+            Jws<Claims> jws = jwtProvider.parseToken(token);
+            return VerifiedToken.of(jws.getHeader(), jws.getPayload(), activeKid);
+        } catch (ExpiredJwtException e) {
+            // La firma ya se verificó: el token es auténtico pero caducado
+            return VerifiedToken.of(e.getHeader(), e.getClaims(), activeKid);
+        } catch (SignatureException e) {
+            return VerifiedToken.rejected("Invalid signature");
+        } catch (MalformedJwtException | IllegalArgumentException e) {
+            return VerifiedToken.rejected("Malformed token");
+        } catch (JwtException e) {
+            return VerifiedToken.rejected("Invalid token");
+        }
+    }
+
+    /**
+     * Resultado inmutable de una verificación de firma, tal como se guarda en la caché.
+     */
+    private record VerifiedToken(
+            String subject,
+            String role,
+            Instant issuedAt,
+            Instant expiresAt,
+            String kid,
+            String verifiedWith,
+            String error
+    ) {
+        /**
+         * Construye el resultado de una firma verificada.
+         *
+         * @param activeKid clave activa al verificar, con la que JwtProvider verifica los tokens sin kid
+         */
+        static VerifiedToken of(Header header, Claims claims, String activeKid) {
+            String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    toInstant(claims.getIssuedAt()),
+                    toInstant(claims.getExpiration()),
+                    kid,
+                    kid != null ? kid : activeKid,
+                    null
+            );
+        }
+
+        static VerifiedToken rejected(String error) {
+            return new VerifiedToken(null, null, null, null, null, null, error);
+        }
+
+        TokenIntrospection toIntrospection(Instant now, JwtKeyRing keyRing) {
+            if (error != null) {
+                return TokenIntrospection.invalid(error);
+            }
+            if (keyRing.findKey(verifiedWith).isEmpty()) {
+                return TokenIntrospection.invalid("Signing key has been retired");
+            }
+            boolean expired = expiresAt != null && !expiresAt.isAfter(now);
+            return new TokenIntrospection(!expired, expired, subject, role, issuedAt, expiresAt, kid, null);
+        }
+
+        private static Instant toInstant(Date date) {
+            return date != null ? date.toInstant() : null;
+        }
+    }
+}
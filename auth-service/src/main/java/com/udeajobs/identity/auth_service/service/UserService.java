@@ -1,33 +1,101 @@
 package com.udeajobs.identity.auth_service.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.udeajobs.identity.auth_service.entity.User;
 import com.udeajobs.identity.auth_service.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.udeajobs.identity.auth_service.util.AverageLatency;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 /**
  * Servicio de gestión de usuarios que implementa UserDetailsService de Spring Security.
  *
  * Proporciona la integración con Spring Security para cargar usuarios desde la base de datos
- * durante el proceso de autenticación.
+ * durante el proceso de autenticación. Delante de {@link UserRepository#findByEmail(String)}
+ * mantiene una caché acotada por tamaño y por TTL con el registro mínimo de credenciales de
+ * cada usuario; las entradas se invalidan en todas las instancias cuando account-service
+ * publica un cambio de contraseña o de estado, y cuando auth-service recalcula un hash al
+ * iniciar sesión.
+ *
+ * Si la {@link CredentialReplica} está activa y lista, se responde desde ella y MongoDB
+ * solo se consulta para los emails que aún no contiene.
+ *
+ * Los emails que el {@link RegisteredEmailFilter} descarta se rechazan sin consultar MongoDB.
+ * Esos rechazos esperan la latencia media con la que se resuelven los usuarios existentes
+ * (réplica, caché o MongoDB, según de dónde salgan) antes de responder, de modo que no son
+ * sistemáticamente más rápidos que una respuesta real. Es una media, no una igualación
+ * exacta: la varianza de cada consulta sigue siendo observable. El coste de BCrypt lo iguala
+ * {@code DaoAuthenticationProvider} comparando contra una contraseña ficticia.
+ *
+ * Métricas exportadas: las de {@link CaffeineCacheMetrics} con {@code cache="user-credentials"}
+ * y {@code users.email.filter.lookups} con la etiqueta {@code result}
+ * (rejected, found, false_positive).
  *
  * @author UdeAJobs Team
  * @version 1.0
  * @since 1.0
  */
-@RequiredArgsConstructor
+@Slf4j
 @Service
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
+    private final RegisteredEmailFilter emailFilter;
+    private final CredentialReplica credentialReplica;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, CredentialRecord> credentials;
+
+    /**
+     * Media móvil exponencial, en nanosegundos, de la latencia con la que se resuelven los usuarios existentes.
+     */
+    private final AverageLatency lookupLatency;
+
+    /**
+     * Crea el servicio y registra las métricas de la caché en Prometheus.
+     *
+     * @param userRepository repositorio de usuarios
+     * @param emailFilter filtro de emails registrados
+     * @param credentialReplica réplica en memoria de las credenciales
+     * @param meterRegistry registro de métricas de Micrometer
+     * @param maxSize número máximo de usuarios en caché
+     * @param ttl tiempo en milisegundos que se conserva cada entrada
+     * @param initialLookupNanos latencia inicial estimada, en nanosegundos, hasta que haya consultas reales
+     */
+    public UserService(UserRepository userRepository,
+                       RegisteredEmailFilter emailFilter,
+                       CredentialReplica credentialReplica,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.user-cache.max-size}") long maxSize,
+                       @Value("${app.user-cache.ttl}") long ttl,
+                       @Value("${app.user-cache.initial-lookup-nanos}") long initialLookupNanos) {
+        this.userRepository = userRepository;
+        this.emailFilter = emailFilter;
+        this.credentialReplica = credentialReplica;
+        this.meterRegistry = meterRegistry;
+        this.lookupLatency = new AverageLatency(initialLookupNanos);
+        this.credentials = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, credentials, "user-credentials");
+    }
 
     /**
      * Carga un usuario por su email (username).
      *
      * Este método es utilizado por Spring Security durante el proceso de autenticación
-     * para obtener los detalles del usuario desde la base de datos.
+     * para obtener los detalles del usuario. Solo consulta la base de datos si el usuario
+     * no está en caché, y devuelve siempre una instancia nueva para que ningún llamador
+     * pueda modificar la entrada compartida.
      *
      * @param username email del usuario (usado como username)
      * @return UserDetails con la información del usuario
@@ -35,7 +103,43 @@ public class UserService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return this.userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
+        long start = System.nanoTime();
+        CredentialRecord record = credentialReplica.lookup(username);
+        if (record == null) {
+            record = credentials.getIfPresent(username);
+        }
+        if (record == null) {
+            if (!emailFilter.mightContain(username)) {
+                record("rejected");
+                lookupLatency.awaitSince(start);
+                throw new UsernameNotFoundException("User not found with email: " + username);
+            }
+            User user = this.userRepository.findByEmail(username).orElse(null);
+            if (user == null) {
+                record("false_positive");
+                throw new UsernameNotFoundException("User not found with email: " + username);
+            }
+            record("found");
+            record = CredentialRecord.from(user);
+            credentials.put(username, record);
+        }
+        lookupLatency.record(System.nanoTime() - start);
+        return record.toUser();
+    }
+
+    /**
+     * Descarta la entrada en caché de un usuario para que el próximo login lea MongoDB.
+     *
+     * @param email email del usuario
+     */
+    public void evict(String email) {
+        if (email != null) {
+            credentials.invalidate(email);
+            log.debug("Credenciales en caché descartadas para {}", email);
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("users.email.filter.lookups", "result", result).increment();
     }
 }
@@ -5,22 +5,46 @@ import com.udeajobs.identity.auth_service.dto.LoginRequest;
 import com.udeajobs.identity.auth_service.dto.NewAccessTokenResponse;
 import com.udeajobs.identity.auth_service.dto.RefreshTokenRequest;
 import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import com.udeajobs.identity.auth_service.entity.TokenSubject;
 import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.util.Digests;
 import com.udeajobs.identity.auth_service.util.JwtProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Implementación del servicio de autenticación usando username y password.
  *
  * Gestiona la autenticación de usuarios mediante Spring Security, generación de tokens JWT
  * y renovación de access tokens mediante refresh tokens.
  *
+ * Las renovaciones concurrentes con el mismo refresh token (p. ej. varias pestañas de una
+ * SPA) se agrupan: solo la primera consulta MongoDB y firma el JWT, y las demás esperan su
+ * resultado. La respuesta se reutiliza además durante
+ * {@code jwt.refresh.single-flight.cache-ttl} milisegundos, siempre que a su access token le
+ * queden al menos {@code jwt.refresh.single-flight.min-remaining} milisegundos de vida, lo que
+ * con la rotación activa evita que una pestaña rezagada dispare la detección de reutilización.
+ * Las revocaciones de sesión pueden tardar ese mismo tiempo en afectar a un refresh token
+ * recién usado.
+ *
+ * Métrica exportada: {@code refresh.single.flight} con la etiqueta {@code result}
+ * (leader, joined, cached).
+ *
  * @author UdeAJobs Team
  * @version 1.0
  * @since 1.0
@@ -32,6 +56,47 @@ public class UsernamePasswordAuthService implements AuthService {
     private final AuthenticationManager authenticationManager;
     private final RefreshTokenService refreshTokenService;
     private final JwtProvider jwtProvider;
+    private final PasswordRehashService passwordRehashService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Milisegundos durante los que se reutiliza la respuesta de una renovación.
+     */
+    @Value("${jwt.refresh.single-flight.cache-ttl}")
+    private long refreshCacheTtl;
+
+    /**
+     * Número máximo de respuestas recientes guardadas.
+     */
+    @Value("${jwt.refresh.single-flight.max-size}")
+    private long refreshCacheMaxSize;
+
+    /**
+     * Vida restante mínima, en milisegundos, que debe tener un access token para reutilizar su respuesta.
+     */
+    @Value("${jwt.refresh.single-flight.min-remaining}")
+    private long minRemainingLifetime;
+
+    /**
+     * Renovaciones en curso, por hash del refresh token.
+     */
+    private final ConcurrentMap<String, CompletableFuture<NewAccessTokenResponse>> refreshesInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Respuestas recientes, por hash del refresh token.
+     */
+    private Cache<String, RecentRefresh> recentRefreshes;
+
+    /**
+     * Construye la caché de renovaciones recientes con el TTL configurado.
+     */
+    @PostConstruct
+    public void init() {
+        recentRefreshes = Caffeine.newBuilder()
+                .maximumSize(refreshCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(refreshCacheTtl))
+                .build();
+    }
 
     /**
      * Autentica un usuario con email y contraseña.
@@ -43,6 +108,12 @@ public class UsernamePasswordAuthService implements AuthService {
      * 4. Crea un refresh token
      * 5. Retorna ambos tokens en la respuesta
      *
+     * El usuario cargado durante la autenticación se reutiliza para emitir ambos tokens,
+     * de modo que un login realiza una única lectura del usuario en MongoDB.
+     *
+     * Si el hash almacenado usa un costo BCrypt menor que el calibrado, se recalcula en
+     * segundo plano sin retrasar la respuesta.
+     *
      * @param loginRequest credenciales del usuario (email y contraseña)
      * @return AuthResponse con access token, refresh token y tipo de token
      * @throws org.springframework.security.authentication.BadCredentialsException si las credenciales son incorrectas
@@ -60,15 +131,16 @@ public class UsernamePasswordAuthService implements AuthService {
         // 2. Guardar el contexto de seguridad
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        // 3. Extraer el UserDetails del objeto Authentication
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        // 3. Reutilizar el usuario cargado por UserService durante la autenticación
+        User user = (User) authentication.getPrincipal();
+        passwordRehashService.rehashIfNeeded(user, loginRequest.password());
 
-        // 4. Generar el token JWT usando el UserDetails
-        String token = jwtProvider.generateToken(userDetails);
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(userDetails.getUsername());
+        // 4. Generar el token JWT y el refresh token con el mismo usuario
+        String token = jwtProvider.generateToken(user);
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
 
         // 5. Devolver la respuesta
-        return new AuthResponse(token, refreshToken.getToken(), "Bearer" );
+        return new AuthResponse(token, refreshToken.getRawToken(), "Bearer" );
     }
 
     /**
@@ -76,28 +148,85 @@ public class UsernamePasswordAuthService implements AuthService {
      *
      * Proceso de renovación:
      * 1. Busca el refresh token en la base de datos
-     * 2. Verifica que no haya expirado
-     * 3. Genera un nuevo access token JWT
-     * 4. Retorna el nuevo access token con el mismo refresh token
+     * 2. Verifica que no haya expirado ni se haya revocado su sesión, extiende su expiración y,
+     *    si la rotación está activa, lo sustituye por uno nuevo
+     * 3. Genera un nuevo access token JWT con la copia del usuario embebida en el refresh token
+     * 4. Retorna el nuevo access token con el refresh token vigente
+     *
+     * Si otra petición ya está renovando el mismo refresh token, espera y comparte su resultado;
+     * si se renovó hace menos de {@code jwt.refresh.single-flight.cache-ttl} ms y al access token
+     * aún le quedan al menos {@code jwt.refresh.single-flight.min-remaining} ms de vida, reutiliza
+     * la respuesta.
      *
      * @param refreshTokenRequest objeto con el refresh token
-     * @return NewAccessTokenResponse con el nuevo access token y el mismo refresh token
-     * @throws RuntimeException si el refresh token no existe o ha expirado
+     * @return NewAccessTokenResponse con el nuevo access token y el refresh token vigente
+     * @throws RuntimeException si el refresh token no existe, ha expirado, su sesión fue revocada o ya había sido rotado
      */
     @Override
     public NewAccessTokenResponse refreshAccessToken(RefreshTokenRequest refreshTokenRequest) {
+        String key = Digests.sha256Hex(refreshTokenRequest.refreshToken());
+        RecentRefresh cached = recentRefreshes.getIfPresent(key);
+        if (cached != null) {
+            if (cached.accessTokenExpiresAt() - System.currentTimeMillis() >= minRemainingLifetime) {
+                record("cached");
+                return cached.response();
+            }
+            recentRefreshes.invalidate(key);
+        }
+
+        CompletableFuture<NewAccessTokenResponse> flight = new CompletableFuture<>();
+        CompletableFuture<NewAccessTokenResponse> leader = refreshesInFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            record("joined");
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        record("leader");
+        try {
+            // La expiración se estima por defecto: se toma el instante antes de firmar el token
+            long accessTokenExpiresAt = System.currentTimeMillis() + jwtProvider.getExpirationTime();
+            NewAccessTokenResponse response = doRefresh(refreshTokenRequest);
+            recentRefreshes.put(key, new RecentRefresh(response, accessTokenExpiresAt));
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            refreshesInFlight.remove(key, flight);
+        }
+    }
+
+    private NewAccessTokenResponse doRefresh(RefreshTokenRequest refreshTokenRequest) {
         // 1. Buscar el refresh token en la base de datos
         RefreshToken refreshToken = refreshTokenService.findByToken(refreshTokenRequest.refreshToken())
                 .orElseThrow(() -> new RuntimeException("Refresh token not found"));
 
-        // 2. Verificar si el refresh token ha expirado
+        // 2. Verificar si el refresh token ha expirado o su sesión fue revocada, y rotarlo si la rotación está activa
         refreshTokenService.verifyExpiration(refreshToken);
+        refreshTokenService.verifySession(refreshToken);
+        refreshTokenService.slideExpiry(refreshToken);
+        RefreshToken currentToken = refreshTokenService.rotate(refreshToken);
 
-        // 3. Generar un nuevo token JWT
-        User user = refreshToken.getUser();
-        String newAccessToken = jwtProvider.generateToken(user);
+        // 3. Generar un nuevo token JWT sin consultar la colección de usuarios
+        TokenSubject subject = refreshToken.getSubject();
+        String newAccessToken = jwtProvider.generateToken(subject.getUserId(), subject.getEmail(), subject.getRole());
 
         // 4. Devolver la respuesta
-        return new NewAccessTokenResponse(newAccessToken, refreshToken.getToken());
+        return new NewAccessTokenResponse(newAccessToken, currentToken.getRawToken());
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("refresh.single.flight", "result", result).increment();
+    }
+
+    /**
+     * Respuesta de una renovación reciente junto con la expiración de su access token.
+     */
+    private record RecentRefresh(NewAccessTokenResponse response, long accessTokenExpiresAt) {
     }
 }
@@ -0,0 +1,59 @@
+package com.udeajobs.identity.auth_service.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Media móvil exponencial de la latencia de una operación, segura entre hilos.
+ *
+ * Se usa para que una respuesta de rechazo rápida tarde lo mismo, en media, que la
+ * operación real a la que sustituye, sin gastar CPU: el hilo se aparca hasta completar
+ * la latencia media medida.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public class AverageLatency {
+
+    private final AtomicLong averageNanos;
+
+    /**
+     * Crea la media con un valor inicial, usado hasta que haya mediciones reales.
+     *
+     * @param initialNanos latencia inicial estimada en nanosegundos
+     */
+    public AverageLatency(long initialNanos) {
+        this.averageNanos = new AtomicLong(initialNanos);
+    }
+
+    /**
+     * Incorpora una medición a la media (peso 1/16).
+     *
+     * @param elapsedNanos duración medida en nanosegundos
+     */
+    public void record(long elapsedNanos) {
+        averageNanos.getAndUpdate(average -> average + (elapsedNanos - average) / 16);
+    }
+
+    /**
+     * Retorna la latencia media actual.
+     *
+     * @return latencia media en nanosegundos
+     */
+    public long averageNanos() {
+        return averageNanos.get();
+    }
+
+    /**
+     * Aparca el hilo hasta que hayan pasado la latencia media desde {@code startNanos}.
+     *
+     * @param startNanos instante de inicio según {@link System#nanoTime()}
+     */
+    public void awaitSince(long startNanos) {
+        long deadline = startNanos + averageNanos.get();
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.udeajobs.identity.auth_service.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de cadenas, seguro para lecturas y escrituras concurrentes.
+ *
+ * Responde "definitivamente no está" o "puede estar": nunca da falsos negativos, y la
+ * probabilidad de falso positivo queda cerca de {@code falsePositiveRate} mientras no se
+ * inserten más de {@code expectedInsertions} elementos. Las posiciones se derivan de un
+ * hash de 64 bits con semilla (doble hashing de Kirsch-Mitzenmacher), de modo que quien
+ * no conoce la semilla no puede fabricar colisiones fuera de línea.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final long seed;
+
+    /**
+     * Crea un filtro vacío dimensionado para la carga esperada.
+     *
+     * @param expectedInsertions número de elementos previstos
+     * @param falsePositiveRate probabilidad de falso positivo deseada (entre 0 y 1)
+     * @param seed semilla del hash
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate, long seed) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing: " + expectedInsertions + ", " + falsePositiveRate);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBits + 63) / 64)));
+        this.bitCount = bits.length() * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.seed = seed;
+    }
+
+    /**
+     * Añade un elemento al filtro.
+     *
+     * @param value elemento a añadir
+     */
+    public void put(String value) {
+        long hash = SeededHash.hash64(value, seed);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = index(h1 + i * h2);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Indica si el elemento puede estar en el filtro.
+     *
+     * @param value elemento a consultar
+     * @return false si el elemento seguro que no se añadió; true si puede haberse añadido
+     */
+    public boolean mightContain(String value) {
+        long hash = SeededHash.hash64(value, seed);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = index(h1 + i * h2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna el tamaño del filtro en bytes.
+     *
+     * @return memoria ocupada por el vector de bits
+     */
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    private long index(int combined) {
+        // Se descarta el signo para obtener una posición válida
+        return (combined & 0x7fffffffL) % bitCount;
+    }
+
+}
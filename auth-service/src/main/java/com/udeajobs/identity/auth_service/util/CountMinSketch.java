@@ -0,0 +1,87 @@
+package com.udeajobs.identity.auth_service.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch de cadenas, seguro para incrementos concurrentes.
+ *
+ * Estima la frecuencia de cada clave en memoria constante ({@code width * depth} contadores):
+ * la estimación nunca es menor que la frecuencia real y la sobreestima como mucho en
+ * {@code e / width} veces el total de incrementos con probabilidad {@code 1 - e^-depth}.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long seed;
+    private final AtomicLongArray counters;
+
+    /**
+     * Crea un sketch vacío.
+     *
+     * @param width contadores por fila
+     * @param depth número de filas (funciones hash)
+     * @param seed semilla del hash
+     */
+    public CountMinSketch(int width, int depth, long seed) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Invalid count-min sketch size: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.seed = seed;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Incrementa en uno la frecuencia de una clave.
+     *
+     * @param key clave observada
+     * @return frecuencia estimada tras el incremento
+     */
+    public long increment(String key) {
+        long hash = SeededHash.hash64(key, seed);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(row * width + column(h1 + row * h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Estima la frecuencia de una clave.
+     *
+     * @param key clave consultada
+     * @return frecuencia estimada (cota superior de la real)
+     */
+    public long estimate(String key) {
+        long hash = SeededHash.hash64(key, seed);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + column(h1 + row * h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Pone a cero todos los contadores.
+     */
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private int column(int combined) {
+        return (combined & 0x7fffffff) % width;
+    }
+
+}
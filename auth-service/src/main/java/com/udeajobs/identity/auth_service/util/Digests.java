@@ -0,0 +1,44 @@
+package com.udeajobs.identity.auth_service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utilidades de resumen criptográfico para derivar claves de caché y hashes de secretos
+ * sin guardar el valor original.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Digests {
+
+    private Digests() {
+    }
+
+    /**
+     * Calcula el SHA-256 de una cadena codificada en UTF-8.
+     *
+     * @param value cadena a resumir
+     * @return los 32 bytes del resumen
+     */
+    public static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Calcula el SHA-256 de una cadena codificada en UTF-8 y lo retorna en hexadecimal.
+     *
+     * @param value cadena a resumir
+     * @return resumen en hexadecimal en minúsculas
+     */
+    public static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(sha256(value));
+    }
+}
@@ -0,0 +1,342 @@
+package com.udeajobs.identity.auth_service.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Anillo de claves de firma para los tokens JWT.
+ *
+ * Decodifica y valida las claves una sola vez (al arrancar y en cada rotación) y las
+ * mantiene en memoria, de modo que la emisión de tokens no vuelve a decodificar el secreto.
+ *
+ * El algoritmo se elige con {@code jwt.algorithm}: {@code HS256} (por defecto), {@code ES256}
+ * o {@code EdDSA} (Ed25519). Las claves se definen en {@code jwt.keys} (separadas por comas)
+ * o en el fichero {@code jwt.key-file} (una por línea, {@code #} para comentarios):
+ * <ul>
+ *     <li>HS256: {@code kid:secretoBase64[:activaDesde]}</li>
+ *     <li>ES256/EdDSA: {@code kid:privadaPkcs8Base64:publicaX509Base64[:activaDesde]}</li>
+ * </ul>
+ * La primera entrada ya activa es la clave de firma; las demás se conservan para verificar
+ * tokens vivos hasta que se retiren del fichero. Sin claves configuradas, en HS256 se usa
+ * {@code jwt.secret} y en modo asimétrico se genera un par efímero (solo válido con una réplica).
+ *
+ * Rotación sin caída: se añade la nueva clave al inicio del fichero con una fecha de activación
+ * posterior al siguiente ciclo de recarga más el {@code max-age} del JWKS, de modo que réplicas
+ * y verificadores la conozcan antes de que aparezca en un token, y se retira la anterior cuando
+ * hayan expirado los tokens firmados con ella.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    /**
+     * Secreto único heredado, usado cuando no se configuran claves con identificador.
+     */
+    @Value("${jwt.secret:}")
+    private String secretKey;
+
+    /**
+     * Algoritmo de firma: HS256, ES256 o EdDSA.
+     */
+    @Value("${jwt.algorithm:HS256}")
+    private String algorithm;
+
+    /**
+     * Claves configuradas en línea, separadas por comas.
+     */
+    @Value("${jwt.keys:}")
+    private String configuredKeys;
+
+    /**
+     * Ruta opcional al fichero de claves, releído en cada ciclo de rotación.
+     */
+    @Value("${jwt.key-file:}")
+    private String keyFile;
+
+    private final AtomicReference<KeySet> keySet = new AtomicReference<>();
+
+    /**
+     * Carga y valida las claves al arrancar. Un anillo inválido impide el arranque.
+     */
+    @PostConstruct
+    public void init() {
+        KeySet loaded = load();
+        keySet.set(loaded);
+        log.info("Anillo de claves JWT {} cargado con {} clave(s), clave activa: {}",
+                algorithm, loaded.keys().size(), loaded.signingKey(Instant.now()).kid());
+    }
+
+    /**
+     * Relee el fichero de claves de forma periódica.
+     *
+     * Si el fichero no cambió no se vuelve a decodificar nada. Si el nuevo contenido es
+     * inválido se conserva el anillo anterior, para que una rotación mal hecha no tumbe el servicio.
+     */
+    @Scheduled(fixedDelayString = "${jwt.key-rotation.interval}", initialDelayString = "${jwt.key-rotation.interval}")
+    public void reload() {
+        if (keyFile.isBlank()) {
+            return;
+        }
+        try {
+            String source = readKeyFile();
+            if (source.equals(keySet.get().source())) {
+                return;
+            }
+            KeySet reloaded = parse(source);
+            keySet.set(reloaded);
+            log.info("Anillo de claves JWT rotado: {} clave(s), clave activa: {}",
+                    reloaded.keys().size(), reloaded.signingKey(Instant.now()).kid());
+        } catch (RuntimeException e) {
+            log.error("No se pudo recargar el fichero de claves JWT {}, se mantiene el anillo actual", keyFile, e);
+        }
+    }
+
+    /**
+     * Retorna la clave con la que deben firmarse los tokens en este momento.
+     *
+     * @return clave de firma activa
+     */
+    public SigningKey signingKey() {
+        return keySet.get().signingKey(Instant.now());
+    }
+
+    /**
+     * Busca una clave por su identificador, incluidas las claves en retiro y las pendientes de activar.
+     *
+     * @param kid identificador de la clave
+     * @return Optional con la clave si pertenece al anillo
+     */
+    public Optional<SigningKey> findKey(String kid) {
+        return Optional.ofNullable(keySet.get().keys().get(kid));
+    }
+
+    /**
+     * Retorna todas las claves cargadas, en el orden en que fueron declaradas.
+     *
+     * @return lista inmutable de claves
+     */
+    public List<SigningKey> keys() {
+        return List.copyOf(keySet.get().keys().values());
+    }
+
+    /**
+     * Retorna el documento JWKS con las claves públicas del anillo.
+     *
+     * Se serializa una sola vez por versión del anillo. En modo HMAC el conjunto está vacío:
+     * los secretos nunca se publican.
+     *
+     * @return JWKS serializado y su ETag
+     */
+    public PublishedJwks publishedJwks() {
+        return keySet.get().jwks();
+    }
+
+    private KeySet load() {
+        if (!keyFile.isBlank()) {
+            return parse(readKeyFile());
+        }
+        if (!configuredKeys.isBlank()) {
+            return parse(configuredKeys.replace(',', '\n'));
+        }
+        if (isAsymmetric()) {
+            log.warn("No hay claves {} configuradas, se genera un par efímero: los tokens no sobrevivirán a un reinicio", algorithm);
+            SigningKey key = generateKeyPair();
+            return keySet(Map.of(key.kid(), key), "");
+        }
+        if (secretKey.isBlank()) {
+            throw new IllegalStateException("No JWT signing keys configured: set jwt.secret, jwt.keys or jwt.key-file");
+        }
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        SigningKey key = new SigningKey(fingerprint(keyBytes), Keys.hmacShaKeyFor(keyBytes), null, Instant.EPOCH);
+        return keySet(Map.of(key.kid(), key), "");
+    }
+
+    private String readKeyFile() {
+        try {
+            return Files.readString(Path.of(keyFile), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT key file: " + keyFile, e);
+        }
+    }
+
+    private KeySet parse(String source) {
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        for (String line : source.split("\n")) {
+            String entry = line.strip();
+            if (entry.isEmpty() || entry.startsWith("#")) {
+                continue;
+            }
+            SigningKey key = isAsymmetric() ? parseKeyPair(entry) : parseSecret(entry);
+            if (keys.putIfAbsent(key.kid(), key) != null) {
+                throw new IllegalStateException("Duplicate JWT key id: " + key.kid());
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("JWT key ring is empty");
+        }
+        KeySet parsed = keySet(Collections.unmodifiableMap(keys), source);
+        parsed.signingKey(Instant.now());
+        return parsed;
+    }
+
+    private SigningKey parseSecret(String entry) {
+        String[] parts = entry.split(":", 3);
+        if (parts.length < 2 || parts[0].isBlank()) {
+            throw new IllegalStateException("Invalid JWT key entry, expected kid:base64Secret[:activeFrom]");
+        }
+        Instant activeFrom = parts.length == 3 ? Instant.parse(parts[2].strip()) : Instant.EPOCH;
+        // Keys.hmacShaKeyFor rechaza claves de menos de 256 bits
+        return new SigningKey(parts[0].strip(), Keys.hmacShaKeyFor(Decoders.BASE64.decode(parts[1].strip())), null, activeFrom);
+    }
+
+    private SigningKey parseKeyPair(String entry) {
+        String[] parts = entry.split(":", 4);
+        if (parts.length < 3 || parts[0].isBlank()) {
+            throw new IllegalStateException("Invalid JWT key entry, expected kid:base64Pkcs8:base64X509[:activeFrom]");
+        }
+        Instant activeFrom = parts.length == 4 ? Instant.parse(parts[3].strip()) : Instant.EPOCH;
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(jcaAlgorithm());
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Decoders.BASE64.decode(parts[1].strip())));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(Decoders.BASE64.decode(parts[2].strip())));
+            SigningKey key = new SigningKey(parts[0].strip(), privateKey, publicKey, activeFrom);
+            verifyPair(key);
+            return key;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid " + algorithm + " key pair for kid " + parts[0], e);
+        }
+    }
+
+    private SigningKey generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(jcaAlgorithm());
+            if ("ES256".equals(algorithm)) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            KeyPair pair = generator.generateKeyPair();
+            String kid = Jwks.builder().key(pair.getPublic()).idFromThumbprint().build().getId();
+            return new SigningKey(kid, pair.getPrivate(), pair.getPublic(), Instant.EPOCH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithm + " key pair", e);
+        }
+    }
+
+    /**
+     * Firma y verifica un token de prueba para comprobar que la clave privada y la pública
+     * forman un par y que corresponden al algoritmo configurado.
+     */
+    private void verifyPair(SigningKey key) {
+        String probe = Jwts.builder().subject("probe").signWith(key.key()).compact();
+        String signedWith = Jwts.parser().verifyWith(key.publicKey()).build()
+                .parseSignedClaims(probe).getHeader().getAlgorithm();
+        if (!algorithm.equals(signedWith)) {
+            throw new IllegalStateException("JWT key " + key.kid() + " signs with " + signedWith + ", expected " + algorithm);
+        }
+    }
+
+    private boolean isAsymmetric() {
+        return switch (algorithm) {
+            case "HS256" -> false;
+            case "ES256", "EdDSA" -> true;
+            default -> throw new IllegalStateException("Unsupported jwt.algorithm: " + algorithm);
+        };
+    }
+
+    private String jcaAlgorithm() {
+        return "ES256".equals(algorithm) ? "EC" : "Ed25519";
+    }
+
+    private static KeySet keySet(Map<String, SigningKey> keys, String source) {
+        return new KeySet(keys, source, PublishedJwks.of(keys.values()));
+    }
+
+    private static String fingerprint(byte[] keyBytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyBytes);
+            return Encoders.BASE64URL.encode(Arrays.copyOf(digest, 8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Instantánea inmutable del anillo; se reemplaza completa en cada rotación.
+     *
+     * @param keys claves indexadas por kid, en orden de preferencia
+     * @param source contenido del que se cargaron, para detectar cambios en el fichero
+     * @param jwks claves públicas ya serializadas
+     */
+    private record KeySet(Map<String, SigningKey> keys, String source, PublishedJwks jwks) {
+
+        SigningKey signingKey(Instant now) {
+            return keys.values().stream()
+                    .filter(key -> key.isActiveAt(now))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No JWT signing key is active yet"));
+        }
+    }
+
+    /**
+     * Documento JWKS serializado, listo para servirse con cabeceras de caché.
+     *
+     * @param json contenido {@code {"keys":[...]}}
+     * @param etag huella del contenido, cambia solo cuando cambian las claves públicas
+     */
+    public record PublishedJwks(String json, String etag) {
+
+        static PublishedJwks of(Collection<SigningKey> keys) {
+            String json = keys.stream()
+                    .filter(key -> key.publicKey() != null)
+                    .map(key -> {
+                        PublicJwk<?> jwk = Jwks.builder().key(key.publicKey()).id(key.kid()).publicKeyUse("sig").build();
+                        return Jwks.json(jwk);
+                    })
+                    .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+                return new PublishedJwks(json, "\"" + Encoders.BASE64URL.encode(Arrays.copyOf(digest, 16)) + "\"");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
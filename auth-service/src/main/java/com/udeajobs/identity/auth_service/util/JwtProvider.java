@@ -1,16 +1,22 @@
 package com.udeajobs.identity.auth_service.util;
 
+import com.udeajobs.identity.auth_service.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
-import java.security.Key;
 
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,70 +24,124 @@ import java.util.Map;
 /**
  * Proveedor de tokens JWT para la generación y firma de access tokens.
  *
- * Utiliza la librería JJWT para crear tokens JWT con firma HMAC-SHA256.
- * Los tokens incluyen información del usuario (email) y sus roles.
+ * Utiliza la librería JJWT para crear tokens JWT firmados con HMAC-SHA256, ES256 o EdDSA.
+ * Los tokens incluyen información del usuario (email) y sus roles, y llevan en la cabecera
+ * el {@code kid} de la clave del {@link JwtKeyRing} con la que fueron firmados.
  *
  * @author UdeAJobs Team
  * @version 1.0
  * @since 1.0
  */
 @Component
-@Data
-@NoArgsConstructor
+@RequiredArgsConstructor
 public class JwtProvider {
 
     /**
-     * Clave secreta para firmar los tokens JWT, configurada en application.properties.
+     * Claim con el identificador del usuario, usado por los endpoints de sesiones.
+     */
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Anillo con las claves de firma ya decodificadas.
      */
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final JwtKeyRing keyRing;
 
     /**
      * Tiempo de expiración del token en milisegundos, configurado en application.properties.
      */
+    @Getter
     @Value("${jwt.expiration}")
     private long expirationTime;
 
+    /**
+     * Parser inmutable y seguro entre hilos; resuelve la clave de verificación por {@code kid}.
+     */
+    private JwtParser parser;
+
+    /**
+     * Construye el parser una sola vez al arrancar.
+     */
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parser().keyLocator(this::locateVerificationKey).build();
+    }
+
     /**
      * Genera un token JWT para un usuario autenticado.
      *
      * El token incluye:
      * - Subject: email del usuario
-     * - Claims: rol del usuario
+     * - Claims: rol e identificador del usuario
      * - Fecha de emisión
      * - Fecha de expiración
-     * - Firma HMAC-SHA256
+     * - Cabecera kid de la clave activa
+     * - Firma con el algoritmo configurado en jwt.algorithm
      *
      * @param userDetails detalles del usuario autenticado
      * @return token JWT firmado como String
      */
     public String generateToken(UserDetails userDetails) {
-        String username = userDetails.getUsername();
+        return generateToken(userDetails instanceof User user ? user.getId() : null, userDetails.getUsername(),
+                userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElse(null));
+    }
+
+    /**
+     * Genera un token JWT a partir del usuario, el subject y el rol, sin necesidad de un UserDetails.
+     *
+     * Se usa al renovar el access token con la copia del usuario guardada en el refresh token.
+     *
+     * @param userId identificador del usuario (claim {@code uid}); se omite si es null
+     * @param username email del usuario (subject del token)
+     * @param role rol del usuario; si es null se usa "USER"
+     * @return token JWT firmado como String
+     */
+    public String generateToken(String userId, String username, String role) {
         Date currentDate = new Date();
         Date expiryDate = new Date(System.currentTimeMillis() + expirationTime);
 
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority)
-        .findFirst().orElse("USER"));
+        claims.put("role", role != null ? role : "USER");
+        if (userId != null) {
+            claims.put(USER_ID_CLAIM, userId);
+        }
+
+        SigningKey signingKey = keyRing.signingKey();
 
         return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
                 .claims(claims)
                 .subject(username)
                 .issuedAt(currentDate)
                 .expiration(expiryDate)
-                .signWith(getSignInKey())
+                .signWith(signingKey.key())
                 .compact();
     }
 
     /**
-     * Obtiene la clave de firma para los tokens JWT.
+     * Verifica la firma de un token y retorna sus claims.
      *
-     * Decodifica la clave secreta desde Base64 y crea una clave HMAC.
+     * @param token access token compacto
+     * @return token verificado con cabecera y claims
+     * @throws io.jsonwebtoken.ExpiredJwtException si la firma es válida pero el token expiró (incluye los claims)
+     * @throws io.jsonwebtoken.JwtException si el token es inválido o su clave no está en el anillo
+     */
+    public Jws<Claims> parseToken(String token) {
+        return parser.parseSignedClaims(token);
+    }
+
+    /**
+     * Resuelve la clave de verificación a partir del {@code kid} de la cabecera.
      *
-     * @return clave HMAC para firmar tokens
+     * Los tokens sin {@code kid}, emitidos antes del anillo de claves, se verifican
+     * con la clave de firma activa.
      */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Key locateVerificationKey(Header header) {
+        String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (kid == null) {
+            return keyRing.signingKey().verificationKey();
+        }
+        return keyRing.findKey(kid)
+                .map(SigningKey::verificationKey)
+                .orElseThrow(() -> new SignatureException("Unknown signing key: " + kid));
     }
 }
@@ -0,0 +1,44 @@
+package com.udeajobs.identity.auth_service.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hash no criptográfico de 64 bits con semilla, compartido por las estructuras probabilísticas.
+ *
+ * Aplica FNV-1a sobre los bytes UTF-8 de la cadena, partiendo de la semilla, y después el
+ * finalizador de MurmurHash3 para repartir los bits en las dos mitades; así cada mitad sirve
+ * como hash independiente en el doble hashing de Kirsch-Mitzenmacher.
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SeededHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SeededHash() {
+    }
+
+    /**
+     * Calcula el hash de una cadena con la semilla dada.
+     *
+     * @param value cadena a resumir
+     * @param seed semilla del hash
+     * @return hash de 64 bits
+     */
+    public static long hash64(String value, long seed) {
+        long hash = FNV_OFFSET ^ seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
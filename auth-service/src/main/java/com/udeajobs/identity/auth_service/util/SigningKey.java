@@ -0,0 +1,48 @@
+package com.udeajobs.identity.auth_service.util;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Instant;
+
+/**
+ * Clave de firma de tokens JWT cargada en el {@link JwtKeyRing}.
+ *
+ * Cada clave se identifica por su {@code kid}, que se emite en la cabecera de los tokens
+ * firmados con ella para que los verificadores puedan elegir la clave correcta.
+ * En modo HMAC la misma clave firma y verifica; en modo asimétrico solo la clave
+ * pública sale del servicio, publicada en el JWKS.
+ *
+ * @param kid identificador de la clave (cabecera {@code kid} del JWT)
+ * @param key clave de firma ya decodificada y validada (secreto HMAC o clave privada)
+ * @param publicKey clave pública de verificación, o null en modo HMAC
+ * @param activeFrom instante a partir del cual la clave puede usarse para firmar
+ *
+ * @author UdeAJobs Team
+ * @version 1.0
+ * @since 1.0
+ */
+public record SigningKey(
+        String kid,
+        Key key,
+        PublicKey publicKey,
+        Instant activeFrom
+) {
+    /**
+     * Indica si la clave ya puede usarse para firmar tokens en el instante dado.
+     *
+     * @param now instante de referencia
+     * @return true si la fecha de activación ya pasó
+     */
+    public boolean isActiveAt(Instant now) {
+        return !activeFrom.isAfter(now);
+    }
+
+    /**
+     * Retorna la clave con la que se verifican los tokens firmados con esta clave.
+     *
+     * @return clave pública en modo asimétrico, o el mismo secreto en modo HMAC
+     */
+    public Key verificationKey() {
+        return publicKey != null ? publicKey : key;
+    }
+}
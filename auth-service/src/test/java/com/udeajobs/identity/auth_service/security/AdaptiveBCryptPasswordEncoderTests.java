@@ -0,0 +1,41 @@
+package com.udeajobs.identity.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveBCryptPasswordEncoderTests {
+
+	@Test
+	void calibrationNeverGoesBelowTheMinimumStrength() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+		AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(0, 0, 5, 6, registry);
+
+		assertThat(encoder.getStrength()).isEqualTo(5);
+		assertThat(AdaptiveBCryptPasswordEncoder.strengthOf(encoder.encode("secret"))).isEqualTo(5);
+		assertThat(registry.get("password.hashing.bcrypt.cost").gauge().value()).isEqualTo(5.0);
+	}
+
+	@Test
+	void onlyWeakerHashesNeedRehashing() {
+		AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5, 80, 4, 16, new SimpleMeterRegistry());
+		String weaker = new BCryptPasswordEncoder(4).encode("secret");
+		String stronger = new BCryptPasswordEncoder(6).encode("secret");
+
+		assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+		assertThat(encoder.upgradeEncoding(stronger)).isFalse();
+		assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+		assertThat(encoder.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+		assertThat(encoder.matches("secret", stronger)).isTrue();
+	}
+
+	@Test
+	void invalidStrengthRangesAreRejected() {
+		assertThatThrownBy(() -> new AdaptiveBCryptPasswordEncoder(0, 80, 12, 10, new SimpleMeterRegistry()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
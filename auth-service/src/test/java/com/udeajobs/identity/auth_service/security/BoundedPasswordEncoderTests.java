@@ -0,0 +1,74 @@
+package com.udeajobs.identity.auth_service.security;
+
+import com.udeajobs.identity.auth_service.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTests {
+
+	@Test
+	void delegatesWhileThereIsCapacity() {
+		try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PlainPasswordEncoder(),
+				1, 1, 1_000, 1, new SimpleMeterRegistry())) {
+			assertThat(encoder.encode("secret")).isEqualTo("secret");
+			assertThat(encoder.matches("secret", "secret")).isTrue();
+		}
+	}
+
+	@Test
+	void rejectsWhenThePoolIsSaturated() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		PasswordEncoder slow = new PlainPasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.encode(rawPassword);
+			}
+		};
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+		try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 1, 10_000, 7, registry)) {
+			CompletableFuture<String> busy = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+			started.await();
+			CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("c"));
+			while (registry.get("password.hashing.queue.size").gauge().value() < 1) {
+				Thread.onSpinWait();
+			}
+
+			assertThatThrownBy(() -> encoder.encode("b"))
+					.isInstanceOf(HashingCapacityExceededException.class)
+					.extracting("retryAfterSeconds").isEqualTo(7L);
+			assertThat(registry.get("password.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+			release.countDown();
+			assertThat(busy.get()).isEqualTo("a");
+			assertThat(queued.get()).isEqualTo("c");
+		}
+	}
+
+	private static class PlainPasswordEncoder implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return rawPassword.toString();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return rawPassword.toString().equals(encodedPassword);
+		}
+	}
+}
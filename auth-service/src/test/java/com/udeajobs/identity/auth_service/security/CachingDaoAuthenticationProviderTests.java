@@ -0,0 +1,99 @@
+package com.udeajobs.identity.auth_service.security;
+
+import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.enums.STATUS;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CachingDaoAuthenticationProviderTests {
+
+	private final PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(4));
+
+	private final User user = user(passwordEncoder.encode("secret"));
+
+	@Test
+	void skipsBCryptForRecentlyVerifiedCredentials() {
+		CachingDaoAuthenticationProvider provider = provider(cache(true));
+
+		provider.authenticate(token("secret"));
+		assertThat(provider.authenticate(token("secret")).isAuthenticated()).isTrue();
+
+		verify(passwordEncoder, times(1)).matches(any(), anyString());
+	}
+
+	@Test
+	void stillRejectsAWrongPasswordAfterACachedSuccess() {
+		CachingDaoAuthenticationProvider provider = provider(cache(true));
+
+		provider.authenticate(token("secret"));
+
+		assertThatThrownBy(() -> provider.authenticate(token("wrong"))).isInstanceOf(BadCredentialsException.class);
+	}
+
+	@Test
+	void forgetsVerificationsOnEvictionAndWhenDisabled() {
+		VerifiedCredentialCache cache = cache(true);
+		CachingDaoAuthenticationProvider provider = provider(cache);
+		provider.authenticate(token("secret"));
+		cache.evict("user@example.com");
+		provider.authenticate(token("secret"));
+
+		CachingDaoAuthenticationProvider disabled = provider(cache(false));
+		disabled.authenticate(token("secret"));
+		disabled.authenticate(token("secret"));
+
+		verify(passwordEncoder, times(4)).matches(any(), anyString());
+	}
+
+	@Test
+	void rejectsNonActiveAccountsWithoutHashingAfterTheAverageVerifyLatency() {
+		User pending = user(user.getPassword());
+		pending.setStatus(STATUS.PENDING_VERIFICATION);
+		User inactive = user(user.getPassword());
+		inactive.setStatus(STATUS.INACTIVE);
+		CachingDaoAuthenticationProvider pendingProvider =
+				new CachingDaoAuthenticationProvider(username -> pending, passwordEncoder, cache(false), 20_000_000);
+		CachingDaoAuthenticationProvider inactiveProvider =
+				new CachingDaoAuthenticationProvider(username -> inactive, passwordEncoder, cache(false), 20_000_000);
+
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> pendingProvider.authenticate(token("secret"))).isInstanceOf(BadCredentialsException.class);
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(20_000_000L);
+		assertThatThrownBy(() -> inactiveProvider.authenticate(token("secret"))).isInstanceOf(BadCredentialsException.class);
+		verify(passwordEncoder, never()).matches(any(), anyString());
+	}
+
+	private CachingDaoAuthenticationProvider provider(VerifiedCredentialCache cache) {
+		return new CachingDaoAuthenticationProvider(username -> user(user.getPassword()), passwordEncoder, cache, 0);
+	}
+
+	private static VerifiedCredentialCache cache(boolean enabled) {
+		return new VerifiedCredentialCache(new SimpleMeterRegistry(), enabled, 100, 60_000);
+	}
+
+	private static UsernamePasswordAuthenticationToken token(String password) {
+		return UsernamePasswordAuthenticationToken.unauthenticated("user@example.com", password);
+	}
+
+	private static User user(String passwordHash) {
+		User user = new User();
+		user.setId("user-1");
+		user.setEmail("user@example.com");
+		user.setRole("FREELANCER");
+		user.setPassword(passwordHash);
+		return user;
+	}
+}
@@ -0,0 +1,46 @@
+package com.udeajobs.identity.auth_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailedLoginAnalyticsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final FailedLoginAnalytics analytics = new FailedLoginAnalytics(registry, 3, 60_000, 256, 4, 3);
+
+	@Test
+	void reportsTheHeaviestHittersPerDimension() {
+		for (int i = 0; i < 500; i++) {
+			analytics.record("victim" + i + "@example.com", "203.0.113.7", "curl/8.0");
+		}
+		for (int i = 0; i < 40; i++) {
+			analytics.record("admin@example.com", "198.51.100." + i, "Mozilla/5.0");
+		}
+
+		FailedLoginAnalytics.HeavyHitter topIp = analytics.topHitters().get("ip").get(0);
+		assertThat(topIp.key()).isEqualTo("203.0.113.7");
+		assertThat(topIp.count()).isGreaterThanOrEqualTo(500);
+		assertThat(analytics.topHitters().get("email").get(0).key()).isEqualTo("admin@example.com");
+		assertThat(analytics.topHitters().get("user-agent")).extracting(FailedLoginAnalytics.HeavyHitter::key)
+				.containsExactly("curl/8.0", "Mozilla/5.0");
+		assertThat(registry.get("auth.failed.logins.top.count").tag("dimension", "ip").tag("rank", "1").gauge().value())
+				.isGreaterThanOrEqualTo(500);
+		assertThat(analytics.windowTotal()).isEqualTo(540);
+	}
+
+	@Test
+	void forgetsFailuresOnceTheyLeaveTheWindow() {
+		analytics.record("user@example.com", "203.0.113.7", "curl/8.0");
+
+		analytics.rotate();
+		analytics.rotate();
+		assertThat(analytics.topHitters().get("email")).hasSize(1);
+		analytics.rotate();
+
+		assertThat(analytics.topHitters().get("email")).isEmpty();
+		assertThat(analytics.windowTotal()).isZero();
+	}
+}
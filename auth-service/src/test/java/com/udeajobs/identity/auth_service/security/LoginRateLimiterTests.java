@@ -0,0 +1,48 @@
+package com.udeajobs.identity.auth_service.security;
+
+import com.udeajobs.identity.auth_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void locksAnEmailOutAfterRepeatedBadPasswordsUntilASuccess() {
+		LoginRateLimiter limiter = new LoginRateLimiter(registry, 100, 100, 100, 3, 900_000, 100);
+		UsernamePasswordAuthenticationToken attempt = UsernamePasswordAuthenticationToken.unauthenticated("User@Example.com", "wrong");
+		for (int i = 0; i < 3; i++) {
+			limiter.checkLogin("user@example.com", "10.0.0.1");
+			limiter.onBadCredentials(new AuthenticationFailureBadCredentialsEvent(attempt, new BadCredentialsException("Bad credentials")));
+		}
+
+		assertThatThrownBy(() -> limiter.checkLogin("USER@example.com", "10.0.0.2"))
+				.isInstanceOf(RateLimitExceededException.class)
+				.satisfies(e -> assertThat(((RateLimitExceededException) e).getRetryAfterSeconds()).isPositive());
+		assertThat(registry.get("rate.limit.rejected").tag("scope", "lockout").counter().count()).isEqualTo(1.0);
+
+		limiter.onSuccess(new AuthenticationSuccessEvent(UsernamePasswordAuthenticationToken.authenticated("user@example.com", null, null)));
+		assertThatCode(() -> limiter.checkLogin("user@example.com", "10.0.0.1")).doesNotThrowAnyException();
+	}
+
+	@Test
+	void limitsAttemptsPerClientIpAcrossEmails() {
+		LoginRateLimiter limiter = new LoginRateLimiter(registry, 100, 2, 100, 5, 900_000, 100);
+
+		limiter.checkLogin("a@example.com", "10.0.0.1");
+		limiter.checkLogin("b@example.com", "10.0.0.1");
+
+		assertThatThrownBy(() -> limiter.checkLogin("c@example.com", "10.0.0.1"))
+				.isInstanceOf(RateLimitExceededException.class);
+		assertThatCode(() -> limiter.checkLogin("c@example.com", "10.0.0.2")).doesNotThrowAnyException();
+	}
+}
@@ -0,0 +1,157 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceImplTests {
+
+	private RefreshTokenRepository repository;
+	private RefreshTokenWriteBuffer writeBuffer;
+	private SessionService sessionService;
+	private RefreshTokenServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(RefreshTokenRepository.class);
+		when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		writeBuffer = new RefreshTokenWriteBuffer(mock(MongoTemplate.class), registry,
+				RefreshTokenWriteBuffer.WriteMode.WRITE_BEHIND, 100, 5);
+		sessionService = mock(SessionService.class);
+		service = new RefreshTokenServiceImpl(repository, writeBuffer, sessionService, registry);
+		ReflectionTestUtils.setField(service, "refreshTokenDurationMs", 60_000L);
+		ReflectionTestUtils.setField(service, "rotationEnabled", true);
+		ReflectionTestUtils.setField(service, "slidingEnabled", true);
+		ReflectionTestUtils.setField(service, "renewFraction", 0.5);
+		ReflectionTestUtils.setField(service, "maxLifetimeMs", 90_000L);
+	}
+
+	@Test
+	void issuedTokensResolveByIdAndNeverStoreTheSecret() {
+		RefreshToken issued = service.createRefreshToken(user());
+		String rawToken = issued.getRawToken();
+		when(repository.findById(issued.getId())).thenReturn(Optional.of(issued));
+
+		assertThat(rawToken).startsWith(issued.getId() + ".");
+		assertThat(issued.getToken()).isNull();
+		assertThat(issued.getSecretHash()).isNotBlank().doesNotContain(rawToken.substring(rawToken.indexOf('.') + 1));
+		assertThat(service.findByToken(rawToken)).get().extracting(RefreshToken::getRawToken).isEqualTo(rawToken);
+		verify(repository, never()).findByToken(anyString());
+	}
+
+	@Test
+	void tamperedSecretsAndMalformedIdsAreRejected() {
+		RefreshToken issued = service.createRefreshToken(user());
+		when(repository.findById(issued.getId())).thenReturn(Optional.of(issued));
+
+		assertThat(service.findByToken(issued.getId() + ".wrong-secret")).isEmpty();
+		assertThat(service.findByToken("not-an-id.secret")).isEmpty();
+	}
+
+	@Test
+	void legacyUuidTokensStillResolveByTokenField() {
+		RefreshToken legacy = new RefreshToken();
+		legacy.setToken("550e8400-e29b-41d4-a716-446655440000");
+		when(repository.findByToken(legacy.getToken())).thenReturn(Optional.of(legacy));
+
+		assertThat(service.findByToken(legacy.getToken())).contains(legacy);
+	}
+
+	@Test
+	void rotationKeepsTheFamilyAndIsVisibleBeforeTheBufferFlushes() {
+		RefreshToken issued = service.createRefreshToken(user());
+
+		RefreshToken rotated = service.rotate(issued);
+
+		assertThat(rotated.getId()).isNotEqualTo(issued.getId());
+		assertThat(rotated.getFamilyId()).isEqualTo(issued.getFamilyId());
+		assertThat(rotated.getExperyDate()).isEqualTo(issued.getExperyDate());
+		assertThat(service.findByToken(rotated.getRawToken())).isPresent();
+	}
+
+	@Test
+	void bufferedTokensAreHandedOutAsCopies() {
+		RefreshToken rotated = service.rotate(service.createRefreshToken(user()));
+		Instant bufferedExpiry = rotated.getExperyDate();
+
+		RefreshToken found = service.findByToken(rotated.getRawToken()).orElseThrow();
+		found.setExperyDate(bufferedExpiry.plusSeconds(60));
+
+		assertThat(found).isNotSameAs(rotated);
+		assertThat(writeBuffer.pending(rotated.getId())).get()
+				.extracting(RefreshToken::getExperyDate).isEqualTo(bufferedExpiry);
+	}
+
+	@Test
+	void bufferedFamiliesAreOnlyDiscardedForTheirOwner() {
+		RefreshToken rotated = service.rotate(service.createRefreshToken(user()));
+
+		assertThat(writeBuffer.discardFamily("another-user", rotated.getFamilyId())).isZero();
+		assertThat(writeBuffer.pending(rotated.getId())).isPresent();
+		assertThat(writeBuffer.discardFamily("6720f1c2a4b5c6d7e8f90123", rotated.getFamilyId())).isEqualTo(1);
+		assertThat(writeBuffer.pending(rotated.getId())).isEmpty();
+	}
+
+	@Test
+	void reusingARotatedTokenRevokesTheWholeFamily() {
+		RefreshToken issued = service.createRefreshToken(user());
+		RefreshToken rotated = service.rotate(issued);
+
+		assertThatThrownBy(() -> service.rotate(issued)).hasMessageContaining("reuse");
+
+		verify(repository).deleteByFamilyId(issued.getFamilyId());
+		assertThat(writeBuffer.pending(rotated.getId())).isEmpty();
+	}
+
+	@Test
+	void tokensFromAnOlderSessionGenerationAreRevoked() {
+		RefreshToken issued = service.createRefreshToken(user());
+		when(sessionService.isRevoked("6720f1c2a4b5c6d7e8f90123", 0L, issued.getSessionStartedAt())).thenReturn(true);
+
+		assertThatThrownBy(() -> service.verifySession(issued)).hasMessageContaining("revoked");
+
+		verify(repository).deleteByFamilyId(issued.getFamilyId());
+	}
+
+	@Test
+	void expiryOnlySlidesPastTheRenewFractionAndNeverBeyondTheMaxLifetime() {
+		RefreshToken fresh = service.createRefreshToken(user());
+		Instant originalExpiry = fresh.getExperyDate();
+
+		service.slideExpiry(fresh);
+		assertThat(fresh.getExperyDate()).isEqualTo(originalExpiry);
+
+		RefreshToken aged = service.createRefreshToken(user());
+		aged.setSessionStartedAt(Instant.now().minusSeconds(50));
+		aged.setExperyDate(Instant.now().plusSeconds(10));
+
+		service.slideExpiry(aged);
+		assertThat(aged.getExperyDate()).isEqualTo(aged.getSessionStartedAt().plusMillis(90_000));
+	}
+
+	private static User user() {
+		User user = new User();
+		user.setId("6720f1c2a4b5c6d7e8f90123");
+		user.setEmail("user@example.com");
+		user.setRole("FREELANCER");
+		return user;
+	}
+}
@@ -0,0 +1,36 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.entity.UserSessions;
+import com.udeajobs.identity.auth_service.util.JwtProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionServiceImplTests {
+
+	@Test
+	void sessionsStartedAfterARevocationSurviveAStaleGeneration() {
+		Instant revokedAt = Instant.now().minusSeconds(10);
+		UserSessions sessions = new UserSessions();
+		sessions.setUserId("user-1");
+		sessions.setGeneration(1);
+		sessions.setRevokedAt(revokedAt);
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.findById("user-1", UserSessions.class)).thenReturn(sessions);
+		SessionServiceImpl service = new SessionServiceImpl(mongoTemplate, mock(JwtProvider.class),
+				mock(RefreshTokenWriteBuffer.class), 10, 60_000, 100);
+
+		assertThat(service.isRevoked("user-1", 0, revokedAt.minusSeconds(1))).isTrue();
+		assertThat(service.isRevoked("user-1", 0, null)).isTrue();
+		assertThat(service.isRevoked("user-1", 0, revokedAt.plusSeconds(1))).isFalse();
+		assertThat(service.isRevoked("user-1", 1, revokedAt.minusSeconds(1))).isFalse();
+		verify(mongoTemplate, times(1)).findById("user-1", UserSessions.class);
+	}
+}
@@ -0,0 +1,141 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.dto.TokenIntrospection;
+import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.util.JwtKeyRing;
+import com.udeajobs.identity.auth_service.util.JwtProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenIntrospectionServiceImplTests {
+
+	@Test
+	void reportsClaimsForActiveTokensAndRejectsGarbage() {
+		JwtProvider jwtProvider = jwtProvider(keyRing(), 60_000);
+		TokenIntrospectionServiceImpl service = service(jwtProvider);
+		String token = jwtProvider.generateToken(user());
+
+		List<TokenIntrospection> results = service.introspect(List.of(token, "not-a-jwt", token)).results();
+
+		assertThat(results).hasSize(3);
+		assertThat(results.get(0).active()).isTrue();
+		assertThat(results.get(0).subject()).isEqualTo("user@example.com");
+		assertThat(results.get(0).role()).isEqualTo("FREELANCER");
+		assertThat(results.get(1).active()).isFalse();
+		assertThat(results.get(1).error()).isEqualTo("Malformed token");
+		assertThat(results.get(2)).isEqualTo(results.get(0));
+	}
+
+	@Test
+	void expiredTokensKeepTheirClaimsButAreInactive() {
+		JwtProvider jwtProvider = jwtProvider(keyRing(), -1_000);
+		TokenIntrospectionServiceImpl service = service(jwtProvider);
+
+		TokenIntrospection result = service.introspect(List.of(jwtProvider.generateToken(user()))).results().get(0);
+
+		assertThat(result.active()).isFalse();
+		assertThat(result.expired()).isTrue();
+		assertThat(result.subject()).isEqualTo("user@example.com");
+	}
+
+	@Test
+	void tokensSignedWithAnotherRingAreRejected() {
+		TokenIntrospectionServiceImpl service = service(jwtProvider(keyRing(), 60_000));
+		String foreignToken = jwtProvider(keyRing(), 60_000).generateToken(user());
+
+		TokenIntrospection result = service.introspect(List.of(foreignToken)).results().get(0);
+
+		assertThat(result.active()).isFalse();
+		assertThat(result.error()).isEqualTo("Invalid signature");
+	}
+
+	@Test
+	void rejectedTokensAreNotCachedSoNewlyLoadedKeysAreAccepted() {
+		String secretA = secret();
+		String secretB = secret();
+		JwtKeyRing keyRing = keyRing("a:" + secretA);
+		TokenIntrospectionServiceImpl service = service(jwtProvider(keyRing, 60_000));
+		String token = jwtProvider(keyRing("b:" + secretB), 60_000).generateToken(user());
+
+		assertThat(service.introspect(List.of(token)).results().get(0).active()).isFalse();
+
+		ReflectionTestUtils.setField(keyRing, "configuredKeys", "a:" + secretA + ",b:" + secretB);
+		keyRing.init();
+
+		assertThat(service.introspect(List.of(token)).results().get(0).active()).isTrue();
+	}
+
+	@Test
+	void tokensWithoutKidAreRetiredWithTheKeyThatVerifiedThem() {
+		JwtKeyRing keyRing = keyRing("a:" + secret());
+		TokenIntrospectionServiceImpl service = service(jwtProvider(keyRing, 60_000));
+		String token = Jwts.builder()
+				.subject("user@example.com")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(keyRing.signingKey().key())
+				.compact();
+
+		assertThat(service.introspect(List.of(token)).results().get(0).active()).isTrue();
+
+		ReflectionTestUtils.setField(keyRing, "configuredKeys", "b:" + secret());
+		keyRing.init();
+
+		TokenIntrospection result = service.introspect(List.of(token)).results().get(0);
+		assertThat(result.active()).isFalse();
+		assertThat(result.error()).isEqualTo("Signing key has been retired");
+	}
+
+	private static TokenIntrospectionServiceImpl service(JwtProvider jwtProvider) {
+		JwtKeyRing keyRing = (JwtKeyRing) ReflectionTestUtils.getField(jwtProvider, "keyRing");
+		return new TokenIntrospectionServiceImpl(jwtProvider, keyRing, new SimpleMeterRegistry(), 1_000, 60_000);
+	}
+
+	private static JwtProvider jwtProvider(JwtKeyRing keyRing, long expiration) {
+		JwtProvider jwtProvider = new JwtProvider(keyRing);
+		ReflectionTestUtils.setField(jwtProvider, "expirationTime", expiration);
+		jwtProvider.init();
+		return jwtProvider;
+	}
+
+	private static JwtKeyRing keyRing() {
+		JwtKeyRing keyRing = new JwtKeyRing();
+		ReflectionTestUtils.setField(keyRing, "algorithm", "HS256");
+		ReflectionTestUtils.setField(keyRing, "secretKey", secret());
+		ReflectionTestUtils.setField(keyRing, "configuredKeys", "");
+		ReflectionTestUtils.setField(keyRing, "keyFile", "");
+		keyRing.init();
+		return keyRing;
+	}
+
+	private static JwtKeyRing keyRing(String configuredKeys) {
+		JwtKeyRing keyRing = new JwtKeyRing();
+		ReflectionTestUtils.setField(keyRing, "algorithm", "HS256");
+		ReflectionTestUtils.setField(keyRing, "secretKey", "");
+		ReflectionTestUtils.setField(keyRing, "configuredKeys", configuredKeys);
+		ReflectionTestUtils.setField(keyRing, "keyFile", "");
+		keyRing.init();
+		return keyRing;
+	}
+
+	private static String secret() {
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		return Encoders.BASE64.encode(secret);
+	}
+
+	private static User user() {
+		User user = new User();
+		user.setEmail("user@example.com");
+		user.setRole("FREELANCER");
+		return user;
+	}
+}
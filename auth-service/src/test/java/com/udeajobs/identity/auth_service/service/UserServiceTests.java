@@ -0,0 +1,110 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserServiceTests {
+
+	@Test
+	void servesRepeatedLoadsFromTheCacheWithFreshInstances() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user("hash-1")));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		UserService userService = new UserService(userRepository, registeredEmails(),
+				mock(CredentialReplica.class), registry, 100, 60_000, 0);
+
+		UserDetails first = userService.loadUserByUsername("user@example.com");
+		((User) first).setPassword(null);
+		UserDetails second = userService.loadUserByUsername("user@example.com");
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getPassword()).isEqualTo("hash-1");
+		verify(userRepository, times(1)).findByEmail("user@example.com");
+		assertThat(registry.get("cache.gets").tag("cache", "user-credentials").tag("result", "hit")
+				.functionCounter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void reloadsAfterEviction() {
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findByEmail("user@example.com"))
+				.thenReturn(Optional.of(user("hash-1"))).thenReturn(Optional.of(user("hash-2")));
+		UserService userService = new UserService(userRepository, registeredEmails(),
+				mock(CredentialReplica.class), new SimpleMeterRegistry(), 100, 60_000, 0);
+
+		userService.loadUserByUsername("user@example.com");
+		userService.evict("user@example.com");
+
+		assertThat(userService.loadUserByUsername("user@example.com").getPassword()).isEqualTo("hash-2");
+		verify(userRepository, times(2)).findByEmail("user@example.com");
+	}
+
+	@Test
+	void rejectsUnknownEmailsWithoutQueryingMongo() {
+		UserRepository userRepository = mock(UserRepository.class);
+		RegisteredEmailFilter emailFilter = mock(RegisteredEmailFilter.class);
+		when(emailFilter.mightContain("unknown@example.com")).thenReturn(false);
+		UserService userService = new UserService(userRepository, emailFilter,
+				mock(CredentialReplica.class), new SimpleMeterRegistry(), 100, 60_000, 0);
+
+		assertThatThrownBy(() -> userService.loadUserByUsername("unknown@example.com"))
+				.isInstanceOf(UsernameNotFoundException.class);
+		verifyNoInteractions(userRepository);
+	}
+
+	@Test
+	void filterRejectionsWaitTheSeededLookupLatency() {
+		RegisteredEmailFilter emailFilter = mock(RegisteredEmailFilter.class);
+		when(emailFilter.mightContain("unknown@example.com")).thenReturn(false);
+		UserService userService = new UserService(mock(UserRepository.class), emailFilter,
+				mock(CredentialReplica.class), new SimpleMeterRegistry(), 100, 60_000, 50_000_000);
+
+		long start = System.nanoTime();
+		assertThatThrownBy(() -> userService.loadUserByUsername("unknown@example.com"))
+				.isInstanceOf(UsernameNotFoundException.class);
+
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(50_000_000L);
+	}
+
+	@Test
+	void answersFromTheReplicaWithoutQueryingMongo() {
+		UserRepository userRepository = mock(UserRepository.class);
+		CredentialReplica credentialReplica = mock(CredentialReplica.class);
+		when(credentialReplica.lookup("user@example.com")).thenReturn(CredentialRecord.from(user("hash-1")));
+		UserService userService = new UserService(userRepository, mock(RegisteredEmailFilter.class),
+				credentialReplica, new SimpleMeterRegistry(), 100, 60_000, 0);
+
+		assertThat(userService.loadUserByUsername("user@example.com").getPassword()).isEqualTo("hash-1");
+		verifyNoInteractions(userRepository);
+	}
+
+	private static RegisteredEmailFilter registeredEmails() {
+		RegisteredEmailFilter emailFilter = mock(RegisteredEmailFilter.class);
+		when(emailFilter.mightContain(anyString())).thenReturn(true);
+		return emailFilter;
+	}
+
+	private static User user(String passwordHash) {
+		User user = new User();
+		user.setId("user-1");
+		user.setEmail("user@example.com");
+		user.setRole("FREELANCER");
+		user.setPassword(passwordHash);
+		return user;
+	}
+}
@@ -0,0 +1,158 @@
+package com.udeajobs.identity.auth_service.service;
+
+import com.udeajobs.identity.auth_service.dto.AuthResponse;
+import com.udeajobs.identity.auth_service.dto.LoginRequest;
+import com.udeajobs.identity.auth_service.dto.NewAccessTokenResponse;
+import com.udeajobs.identity.auth_service.dto.RefreshTokenRequest;
+import com.udeajobs.identity.auth_service.entity.RefreshToken;
+import com.udeajobs.identity.auth_service.entity.TokenSubject;
+import com.udeajobs.identity.auth_service.entity.User;
+import com.udeajobs.identity.auth_service.repository.RefreshTokenRepository;
+import com.udeajobs.identity.auth_service.repository.UserRepository;
+import com.udeajobs.identity.auth_service.util.JwtKeyRing;
+import com.udeajobs.identity.auth_service.util.JwtProvider;
+import io.jsonwebtoken.io.Encoders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class UsernamePasswordAuthServiceTests {
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void loginReadsTheUserOnlyOnce() {
+		BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+		User user = new User();
+		user.setId("user-1");
+		user.setEmail("user@example.com");
+		user.setRole("FREELANCER");
+		user.setPassword(passwordEncoder.encode("secret"));
+
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+		RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+		when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(
+				new UserService(userRepository, registeredEmails(),
+				mock(CredentialReplica.class), new SimpleMeterRegistry(), 100, 60_000, 0));
+		provider.setPasswordEncoder(passwordEncoder);
+		RefreshTokenServiceImpl refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository,
+				mock(RefreshTokenWriteBuffer.class), mock(SessionService.class), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDurationMs", 60_000L);
+		UsernamePasswordAuthService authService = new UsernamePasswordAuthService(new ProviderManager(provider),
+				refreshTokenService, jwtProvider(), mock(PasswordRehashService.class), new SimpleMeterRegistry());
+
+		AuthResponse response = authService.login(new LoginRequest("user@example.com", "secret"));
+
+		assertThat(response.accessToken()).isNotBlank();
+		assertThat(response.refreshToken()).isNotBlank();
+		verify(userRepository, times(1)).findByEmail("user@example.com");
+		verifyNoMoreInteractions(userRepository);
+	}
+
+	@Test
+	void concurrentRefreshesOfTheSameTokenShareOneLookup() throws Exception {
+		RefreshToken refreshToken = new RefreshToken();
+		refreshToken.setSubject(new TokenSubject("user-1", "user@example.com", "FREELANCER", 0L));
+		refreshToken.setRawToken("refresh-token");
+		CountDownLatch lookupStarted = new CountDownLatch(1);
+		CountDownLatch releaseLookup = new CountDownLatch(1);
+		RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+		when(refreshTokenService.findByToken("refresh-token")).thenAnswer(invocation -> {
+			lookupStarted.countDown();
+			releaseLookup.await();
+			return Optional.of(refreshToken);
+		});
+		when(refreshTokenService.rotate(refreshToken)).thenReturn(refreshToken);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		UsernamePasswordAuthService authService = new UsernamePasswordAuthService(mock(ProviderManager.class),
+				refreshTokenService, jwtProvider(), mock(PasswordRehashService.class), registry);
+		ReflectionTestUtils.setField(authService, "refreshCacheTtl", 5_000L);
+		ReflectionTestUtils.setField(authService, "refreshCacheMaxSize", 100L);
+		ReflectionTestUtils.setField(authService, "minRemainingLifetime", 30_000L);
+		authService.init();
+		RefreshTokenRequest request = new RefreshTokenRequest("refresh-token");
+
+		CompletableFuture<NewAccessTokenResponse> leader = CompletableFuture.supplyAsync(() -> authService.refreshAccessToken(request));
+		lookupStarted.await();
+		CompletableFuture<NewAccessTokenResponse> follower = CompletableFuture.supplyAsync(() -> authService.refreshAccessToken(request));
+		while (registry.find("refresh.single.flight").tag("result", "joined").counter() == null) {
+			Thread.onSpinWait();
+		}
+		releaseLookup.countDown();
+
+		assertThat(follower.get()).isEqualTo(leader.get());
+		assertThat(authService.refreshAccessToken(request)).isEqualTo(leader.get());
+		verify(refreshTokenService, times(1)).findByToken("refresh-token");
+		assertThat(registry.get("refresh.single.flight").tag("result", "cached").counter().count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void cachedRefreshesAreNotReusedOnceTheAccessTokenIsCloseToExpiring() {
+		RefreshToken refreshToken = new RefreshToken();
+		refreshToken.setSubject(new TokenSubject("user-1", "user@example.com", "FREELANCER", 0L));
+		refreshToken.setRawToken("refresh-token");
+		RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+		when(refreshTokenService.findByToken("refresh-token")).thenReturn(Optional.of(refreshToken));
+		when(refreshTokenService.rotate(refreshToken)).thenReturn(refreshToken);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		UsernamePasswordAuthService authService = new UsernamePasswordAuthService(mock(ProviderManager.class),
+				refreshTokenService, jwtProvider(), mock(PasswordRehashService.class), registry);
+		ReflectionTestUtils.setField(authService, "refreshCacheTtl", 5_000L);
+		ReflectionTestUtils.setField(authService, "refreshCacheMaxSize", 100L);
+		ReflectionTestUtils.setField(authService, "minRemainingLifetime", 90_000L);
+		authService.init();
+		RefreshTokenRequest request = new RefreshTokenRequest("refresh-token");
+
+		authService.refreshAccessToken(request);
+		authService.refreshAccessToken(request);
+
+		verify(refreshTokenService, times(2)).findByToken("refresh-token");
+		assertThat(registry.find("refresh.single.flight").tag("result", "cached").counter()).isNull();
+	}
+
+	private static RegisteredEmailFilter registeredEmails() {
+		RegisteredEmailFilter emailFilter = mock(RegisteredEmailFilter.class);
+		when(emailFilter.mightContain(anyString())).thenReturn(true);
+		return emailFilter;
+	}
+
+	private static JwtProvider jwtProvider() {
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		JwtKeyRing keyRing = new JwtKeyRing();
+		ReflectionTestUtils.setField(keyRing, "algorithm", "HS256");
+		ReflectionTestUtils.setField(keyRing, "secretKey", Encoders.BASE64.encode(secret));
+		ReflectionTestUtils.setField(keyRing, "configuredKeys", "");
+		ReflectionTestUtils.setField(keyRing, "keyFile", "");
+		keyRing.init();
+		JwtProvider jwtProvider = new JwtProvider(keyRing);
+		ReflectionTestUtils.setField(jwtProvider, "expirationTime", 60_000L);
+		jwtProvider.init();
+		return jwtProvider;
+	}
+}
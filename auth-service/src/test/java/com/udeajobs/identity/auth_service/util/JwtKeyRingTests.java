@@ -0,0 +1,98 @@
+package com.udeajobs.identity.auth_service.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.WeakKeyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTests {
+
+	@Test
+	void legacySecretGetsStableFingerprintKid() {
+		String secret = randomSecret(32);
+
+		JwtKeyRing first = keyRing(secret, "");
+		JwtKeyRing second = keyRing(secret, "");
+
+		assertThat(first.signingKey().kid()).isEqualTo(second.signingKey().kid());
+		assertThat(first.keys()).hasSize(1);
+	}
+
+	@Test
+	void firstActiveKeySignsAndRetiringKeysStayVerifiable() {
+		String pending = "2026-11:" + randomSecret(32) + ":" + Instant.now().plusSeconds(3600);
+		String active = "2026-10:" + randomSecret(32);
+		String retiring = "2026-09:" + randomSecret(32);
+
+		JwtKeyRing keyRing = keyRing("", String.join(",", pending, active, retiring));
+
+		assertThat(keyRing.signingKey().kid()).isEqualTo("2026-10");
+		assertThat(keyRing.findKey("2026-11")).isPresent();
+		assertThat(keyRing.findKey("2026-09")).isPresent();
+		assertThat(keyRing.findKey("unknown")).isEmpty();
+	}
+
+	@Test
+	void weakKeysAreRejectedAtStartup() {
+		assertThatThrownBy(() -> keyRing("", "weak:" + randomSecret(16)))
+				.isInstanceOf(WeakKeyException.class);
+	}
+
+	@Test
+	void duplicateKidsAreRejectedAtStartup() {
+		String secret = randomSecret(32);
+
+		assertThatThrownBy(() -> keyRing("", "k1:" + secret + ",k1:" + secret))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void asymmetricRingPublishesOnlyPublicKeys() {
+		JwtKeyRing keyRing = keyRing("ES256", "", "");
+		SigningKey signingKey = keyRing.signingKey();
+
+		String token = Jwts.builder().subject("user@example.com").signWith(signingKey.key()).compact();
+		String subject = Jwts.parser().verifyWith(signingKey.publicKey()).build()
+				.parseSignedClaims(token).getPayload().getSubject();
+
+		assertThat(subject).isEqualTo("user@example.com");
+		assertThat(keyRing.publishedJwks().json())
+				.contains("\"kid\":\"" + signingKey.kid() + "\"")
+				.contains("\"kty\":\"EC\"")
+				.doesNotContain("\"d\"");
+	}
+
+	@Test
+	void hmacRingNeverPublishesSecrets() {
+		JwtKeyRing keyRing = keyRing(randomSecret(32), "");
+
+		assertThat(keyRing.publishedJwks().json()).isEqualTo("{\"keys\":[]}");
+	}
+
+	private static JwtKeyRing keyRing(String secret, String keys) {
+		return keyRing("HS256", secret, keys);
+	}
+
+	private static JwtKeyRing keyRing(String algorithm, String secret, String keys) {
+		JwtKeyRing keyRing = new JwtKeyRing();
+		ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+		ReflectionTestUtils.setField(keyRing, "secretKey", secret);
+		ReflectionTestUtils.setField(keyRing, "configuredKeys", keys);
+		ReflectionTestUtils.setField(keyRing, "keyFile", "");
+		keyRing.init();
+		return keyRing;
+	}
+
+	private static String randomSecret(int bytes) {
+		byte[] secret = new byte[bytes];
+		new SecureRandom().nextBytes(secret);
+		return Encoders.BASE64.encode(secret);
+	}
+}
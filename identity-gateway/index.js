@@ -12,18 +12,31 @@ fastify.register(metrics, {
 const ACCOUNT_SERVICE_URL = process.env.ACCOUNT_SERVICE_URL;
 const AUTH_SERVICE_URL = process.env.AUTH_SERVICE_URL;
 
+// --- 2. Cabeceras reenviadas ---
+// Los servicios limitan intentos por IP de cliente: se añade la IP de origen a X-Forwarded-For
+const forwardClientIp = {
+  rewriteRequestHeaders: (request, headers) => ({
+    ...headers,
+    'x-forwarded-for': headers['x-forwarded-for']
+      ? `${headers['x-forwarded-for']}, ${request.socket.remoteAddress}`
+      : request.socket.remoteAddress,
+  }),
+};
+
 // --- 3. Registro de Rutas (El Proxy) ---
 
 fastify.register(httpProxy, {
   upstream: AUTH_SERVICE_URL,
   prefix: '/identity-cell/auth',  // <-- URL pública simple
   rewritePrefix: '/api/v1/auth',  // <-- URL interna con versión
+  replyOptions: forwardClientIp,
 });
 
 fastify.register(httpProxy, {
   upstream: ACCOUNT_SERVICE_URL,
   prefix: '/identity-cell/accounts',  // <-- URL pública simple
   rewritePrefix: '/api/v1/accounts',  // <-- URL interna con versión
+  replyOptions: forwardClientIp,
 });
 
 // --- 4. Iniciar el Servidor ---